@@ -0,0 +1,78 @@
+package com.example.coupon.benchmark;
+
+import com.example.coupon.CouponApiApplication;
+import com.example.coupon.id.UuidV7;
+import com.example.coupon.value.CouponCode;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Boots the application without the web layer against a private in-memory H2 database, for
+ * benchmarks that need the real repositories and transactions.
+ */
+final class BenchmarkContext {
+
+    private BenchmarkContext() {
+    }
+
+    static ConfigurableApplicationContext start(String... properties) {
+        List<String> defaults = new ArrayList<>(List.of(
+                "spring.datasource.url=jdbc:h2:mem:bench-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1",
+                "spring.jpa.show-sql=false",
+                "spring.h2.console.enabled=false",
+                "logging.level.root=WARN"
+        ));
+        defaults.addAll(List.of(properties));
+        return new SpringApplicationBuilder(CouponApiApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(defaults.toArray(String[]::new))
+                .run();
+    }
+
+    /**
+     * Inserts {@code rows} active coupons straight through JDBC, bypassing the service so that
+     * seeding millions of rows stays cheap. Codes are derived from the row number.
+     */
+    static void seed(ConfigurableApplicationContext context, int rows) {
+        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+        LocalDateTime base = LocalDateTime.now().plusDays(1);
+        int batchSize = 10_000;
+        List<Object[]> batch = new ArrayList<>(batchSize);
+        for (int i = 0; i < rows; i++) {
+            batch.add(new Object[]{
+                    UuidV7.next(),
+                    code(i),
+                    "Seeded coupon " + i,
+                    BigDecimal.ONE,
+                    Timestamp.valueOf(base.plusSeconds(i % 86_400)),
+            });
+            if (batch.size() == batchSize) {
+                insert(jdbc, batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            insert(jdbc, batch);
+        }
+    }
+
+    static String code(int i) {
+        return CouponCode.fromKey(i);
+    }
+
+    static void insert(JdbcTemplate jdbc, List<Object[]> batch) {
+        jdbc.batchUpdate("""
+                insert into coupons (id, code, description, discount_value, expiration_date, status, published, redeemed)
+                values (?, ?, ?, ?, ?, 'ACTIVE', true, false)
+                """, batch);
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.coupon.benchmark;
+
+import com.example.coupon.dto.CodeValidationResult;
+import com.example.coupon.dto.CouponResponse;
+import com.example.coupon.service.CouponService;
+import com.example.coupon.service.CouponValidationService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Checking a cart of codes: one {@link CouponValidationService#validate} call against one
+ * {@link CouponService#getById} call per code, which is what clients did before. The code cache
+ * is sized to zero so both sides go to the database every time.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CartValidationBenchmark {
+
+    private static final int ROWS = 100_000;
+
+    @Param({"5", "50"})
+    private int cartSize;
+
+    private ConfigurableApplicationContext context;
+    private CouponValidationService validationService;
+    private CouponService service;
+    private List<String> codes;
+    private List<UUID> ids;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("coupon.sweeper.enabled=false", "coupon.cache.code.maximum-size=0");
+        BenchmarkContext.seed(context, ROWS);
+        validationService = context.getBean(CouponValidationService.class);
+        service = context.getBean(CouponService.class);
+
+        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+        codes = new ArrayList<>(cartSize);
+        ids = new ArrayList<>(cartSize);
+        for (int i = 0; i < cartSize; i++) {
+            String code = BenchmarkContext.code(i * (ROWS / cartSize));
+            codes.add(code);
+            ids.add(jdbc.queryForObject("select id from coupons where code = ?", UUID.class, code));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<CodeValidationResult> validateCart() {
+        return validationService.validate(codes);
+    }
+
+    @Benchmark
+    public void getByIdPerCode(Blackhole blackhole) {
+        for (UUID id : ids) {
+            CouponResponse coupon = service.getById(id);
+            blackhole.consume(coupon);
+        }
+    }
+}
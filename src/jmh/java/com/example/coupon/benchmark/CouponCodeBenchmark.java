@@ -0,0 +1,46 @@
+package com.example.coupon.benchmark;
+
+import com.example.coupon.value.CouponCode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the regex sanitization the service used to run (twice per create) against the
+ * single-pass key parser.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CouponCodeBenchmark {
+
+    @Param({"ABC123", "ab-1c.2d", "  x#Y$z 9-8_7 "})
+    private String raw;
+
+    @Benchmark
+    public String regexSanitize() {
+        return raw.replaceAll("[^a-zA-Z0-9]", "").toUpperCase();
+    }
+
+    @Benchmark
+    public long packedKey() {
+        return CouponCode.toKey(raw);
+    }
+
+    @Benchmark
+    public CouponCode valueObject() {
+        return new CouponCode(raw);
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.coupon.benchmark;
+
+import com.example.coupon.dto.CouponResponse;
+import com.example.coupon.entity.CouponEntity;
+import com.example.coupon.id.UuidV7;
+import com.example.coupon.mapper.CouponMapper;
+import com.example.coupon.value.DiscountValue;
+import com.example.coupon.value.ExpirationDate;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Value objects, entity factory and mapper: the per-request work that does not touch the database.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DomainBenchmark {
+
+    private final CouponMapper mapper = new CouponMapper();
+
+    private BigDecimal discount;
+    private LocalDateTime expiration;
+    private CouponEntity entity;
+
+    @Setup
+    public void setUp() {
+        discount = new BigDecimal("10.50");
+        expiration = LocalDateTime.now().plusDays(30);
+        entity = CouponEntity.create("AB-12CD", "10% off on next purchase", discount, expiration, true);
+    }
+
+    @Benchmark
+    public DiscountValue discountValue() {
+        return new DiscountValue(discount);
+    }
+
+    @Benchmark
+    public ExpirationDate expirationDate() {
+        return new ExpirationDate(expiration);
+    }
+
+    @Benchmark
+    public UUID randomId() {
+        return UUID.randomUUID();
+    }
+
+    @Benchmark
+    public UUID timeOrderedId() {
+        return UuidV7.next();
+    }
+
+    @Benchmark
+    public CouponEntity entityCreate() {
+        return CouponEntity.create("AB-12CD", "10% off on next purchase", discount, expiration, true);
+    }
+
+    @Benchmark
+    public CouponResponse mapperToResponse() {
+        return mapper.toResponse(entity);
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.coupon.benchmark;
+
+import com.example.coupon.id.UuidV7;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Bulk insert of {@code rows} coupons into a fresh file-backed H2 database (the docker-compose
+ * setup), with random version 4 ids against time-ordered version 7 ids. Each iteration starts
+ * from an empty schema that has every index the entity declares, so the result includes the
+ * page splits and cache misses random keys cause in the primary key index. The database file size
+ * after the load is printed on tear down.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+@State(Scope.Benchmark)
+public class IdLocalityBenchmark {
+
+    private static final int BATCH_SIZE = 10_000;
+
+    @Param({"random", "v7"})
+    private String ids;
+
+    @Param({"1000000"})
+    private int rows;
+
+    private Path directory;
+    private ConfigurableApplicationContext context;
+    private JdbcTemplate jdbc;
+    private Supplier<UUID> generator;
+
+    @Setup(Level.Iteration)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("coupon-ids-");
+        context = BenchmarkContext.start(
+                "spring.datasource.url=jdbc:h2:file:" + directory.resolve("coupondb").toAbsolutePath(),
+                "spring.jpa.hibernate.ddl-auto=create",
+                "coupon.sweeper.enabled=false"
+        );
+        jdbc = context.getBean(JdbcTemplate.class);
+        generator = "v7".equals(ids) ? UuidV7::next : UUID::randomUUID;
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() throws IOException {
+        jdbc.execute("checkpoint sync");
+        long bytes;
+        try (var files = Files.list(directory)) {
+            bytes = files.mapToLong(file -> file.toFile().length()).sum();
+        }
+        System.out.printf("%n%s ids: database size after %d rows: %d MB%n", ids, rows, bytes / (1024 * 1024));
+        context.close();
+        FileSystemUtils.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public int bulkInsert() {
+        LocalDateTime expiration = LocalDateTime.now().plusDays(1);
+        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < rows; i++) {
+            batch.add(new Object[]{
+                    generator.get(),
+                    BenchmarkContext.code(i),
+                    "Bulk coupon " + i,
+                    BigDecimal.ONE,
+                    Timestamp.valueOf(expiration.plusSeconds(i % 86_400)),
+            });
+            if (batch.size() == BATCH_SIZE) {
+                BenchmarkContext.insert(jdbc, batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            BenchmarkContext.insert(jdbc, batch);
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.coupon.benchmark;
+
+import com.example.coupon.dto.CouponResponse;
+import com.example.coupon.entity.CouponEntity;
+import com.example.coupon.entity.CouponStatus;
+import com.example.coupon.pagination.KeysetCursor;
+import com.example.coupon.repository.CouponRepository;
+import com.example.coupon.service.CouponService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * OFFSET listing against keyset scrolling at the first and at a deep page. Keyset latency should be
+ * flat across {@code page} and {@code rows} thanks to the (status, expiration_date, id) index; the
+ * OFFSET listing grows with the page and also pays for the count query.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ListingBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+
+    @Param({"0", "10000"})
+    private int page;
+
+    @Param({"250000", "1000000"})
+    private int rows;
+
+    private ConfigurableApplicationContext context;
+    private CouponService service;
+    private KeysetCursor cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        BenchmarkContext.seed(context, rows);
+        service = context.getBean(CouponService.class);
+
+        if (page > 0) {
+            // Position the cursor on the last row of the previous page, as a client scrolling there would.
+            List<CouponEntity> previous = context.getBean(CouponRepository.class)
+                    .findAllByStatus(CouponStatus.ACTIVE, PageRequest.of(page - 1, PAGE_SIZE,
+                            Sort.by("expirationDate", "id")))
+                    .getContent();
+            cursor = KeysetCursor.after(previous.get(previous.size() - 1));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Page<CouponResponse> offset() {
+        return service.listAll(PageRequest.of(page, PAGE_SIZE, Sort.by("expirationDate").ascending()));
+    }
+
+    @Benchmark
+    public Slice<CouponResponse> keyset() {
+        return service.scroll(cursor, PAGE_SIZE);
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.coupon.benchmark;
+
+import com.example.coupon.dto.CouponResponse;
+import com.example.coupon.entity.CouponStatus;
+import com.example.coupon.mapper.CouponMapper;
+import com.example.coupon.repository.CouponRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Read paths with managed entities copied through {@link CouponMapper} (the former implementation)
+ * against constructor-expression projections, for one page of 100 and for a single coupon.
+ * Run with the default {@code -prof gc} to compare allocation per operation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ProjectionBenchmark {
+
+    private static final int ROWS = 10_000;
+    private static final Pageable PAGE = PageRequest.of(10, 100, Sort.by("expirationDate").ascending());
+
+    private ConfigurableApplicationContext context;
+    private CouponRepository repository;
+    private CouponMapper mapper;
+    private TransactionTemplate readOnly;
+    private UUID existingId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("coupon.sweeper.enabled=false");
+        BenchmarkContext.seed(context, ROWS);
+        repository = context.getBean(CouponRepository.class);
+        mapper = context.getBean(CouponMapper.class);
+        readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnly.setReadOnly(true);
+        existingId = repository.findAllByStatus(CouponStatus.ACTIVE, PageRequest.ofSize(1)).getContent().get(0).getId();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Page<CouponResponse> pageOfEntities() {
+        return readOnly.execute(status -> repository.findAllByStatus(CouponStatus.ACTIVE, PAGE).map(mapper::toResponse));
+    }
+
+    @Benchmark
+    public Page<CouponResponse> pageOfProjections() {
+        return readOnly.execute(status -> repository.findResponsesByStatus(CouponStatus.ACTIVE, PAGE));
+    }
+
+    @Benchmark
+    public CouponResponse singleEntity() {
+        return readOnly.execute(status -> mapper.toResponse(repository.findById(existingId).orElseThrow()));
+    }
+
+    @Benchmark
+    public CouponResponse singleProjection() {
+        return readOnly.execute(status -> repository.findResponseById(existingId).orElseThrow());
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.coupon.benchmark;
+
+import com.example.coupon.entity.CouponEntity;
+import com.example.coupon.redemption.StripedBudget;
+import com.example.coupon.repository.CouponRepository;
+import com.example.coupon.service.CouponService;
+import com.example.coupon.value.CouponCode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Redemptions of one shared code from every core at once: the striped in-memory budget against a
+ * single atomic counter, and the full {@link CouponService#redeem} path on a multi-use coupon
+ * against a conditional row UPDATE per redemption.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(Threads.MAX)
+public class RedemptionContentionBenchmark {
+
+    private static final long REFILL = 1L << 40;
+    private static final String CODE = "SHARED";
+
+    @State(Scope.Benchmark)
+    public static class Counters {
+
+        final StripedBudget striped = new StripedBudget(Runtime.getRuntime().availableProcessors());
+        final AtomicLong single = new AtomicLong();
+
+        @Setup(Level.Iteration)
+        public void refill() {
+            striped.drainAvailable();
+            striped.drainUsed();
+            striped.add(REFILL);
+            single.set(REFILL);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Database {
+
+        ConfigurableApplicationContext context;
+        CouponService service;
+        JdbcTemplate jdbc;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            context = BenchmarkContext.start("coupon.sweeper.enabled=false");
+            service = context.getBean(CouponService.class);
+            jdbc = context.getBean(JdbcTemplate.class);
+            context.getBean(CouponRepository.class).save(CouponEntity.create(
+                    new CouponCode(CODE),
+                    "Shared campaign code",
+                    BigDecimal.ONE,
+                    LocalDateTime.now().plusDays(1),
+                    true,
+                    Integer.MAX_VALUE
+            ));
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            context.close();
+        }
+    }
+
+    @Benchmark
+    public boolean stripedBudget(Counters counters) {
+        return counters.striped.tryAcquire();
+    }
+
+    @Benchmark
+    public boolean singleCounter(Counters counters) {
+        AtomicLong counter = counters.single;
+        long current;
+        while ((current = counter.get()) > 0) {
+            if (counter.compareAndSet(current, current - 1)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Benchmark
+    public CouponEntity ledgerRedeem(Database database) {
+        return database.service.redeem(CODE);
+    }
+
+    @Benchmark
+    public int rowPerRedemption(Database database) {
+        return database.jdbc.update("""
+                update coupons set redemption_count = redemption_count + 1
+                 where code = ? and redemption_count < max_redemptions
+                """, CODE);
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.coupon.benchmark;
+
+import com.example.coupon.journal.RedemptionEvent;
+import com.example.coupon.journal.RedemptionJournal;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Durable appends from many threads: the journal's group commit against a file channel that is
+ * forced once per append. At the end of the trial the journal prints its fsync latency and how
+ * many appends each fsync covered.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(64)
+public class RedemptionJournalBenchmark {
+
+    private static final RedemptionEvent EVENT = new RedemptionEvent(
+            UUID.randomUUID(), 0x1234_5678L, System.currentTimeMillis(), "ORDER-000000001");
+
+    @State(Scope.Benchmark)
+    public static class Journal {
+
+        SimpleMeterRegistry registry;
+        RedemptionJournal journal;
+        Path directory;
+
+        @Setup(Level.Trial)
+        public void setUp() throws IOException {
+            directory = Files.createTempDirectory("journal-bench");
+            registry = new SimpleMeterRegistry();
+            journal = new RedemptionJournal(directory.toString(), DataSize.ofMegabytes(64), registry);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws Exception {
+            journal.close();
+            Timer fsync = registry.get("coupon.journal.fsync").timer();
+            DistributionSummary group = registry.get("coupon.journal.group.size").summary();
+            System.out.printf("%nfsync: %d calls, mean %.1f us, max %.1f us; %.1f appends per fsync%n",
+                    fsync.count(), fsync.mean(TimeUnit.MICROSECONDS), fsync.max(TimeUnit.MICROSECONDS), group.mean());
+            FileSystemUtils.deleteRecursively(directory);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class ForcePerAppend {
+
+        Path file;
+        FileChannel channel;
+
+        @Setup(Level.Trial)
+        public void setUp() throws IOException {
+            file = Files.createTempFile("journal-bench", ".log");
+            channel = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException {
+            channel.close();
+            Files.deleteIfExists(file);
+        }
+
+        synchronized void append(byte[] record) throws IOException {
+            channel.write(ByteBuffer.wrap(record));
+            channel.force(false);
+        }
+    }
+
+    @Benchmark
+    public void groupCommit(Journal journal) {
+        journal.journal.append(EVENT);
+    }
+
+    @Benchmark
+    public void forcePerAppend(ForcePerAppend log) throws IOException {
+        // Roughly the size of an encoded journal record.
+        log.append(new byte[64]);
+    }
+}
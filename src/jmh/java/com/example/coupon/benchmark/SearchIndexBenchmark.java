@@ -0,0 +1,101 @@
+package com.example.coupon.benchmark;
+
+import com.example.coupon.search.CouponTextIndex;
+import com.example.coupon.value.CouponCode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Search latency over 5M synthetic coupons, sampled so the percentiles (p99 included) come out of
+ * the run. Descriptions are four words drawn with a skew from a 2,000-word vocabulary, so queries
+ * mix very common words with rare ones. {@code pending} runs the same queries with that many adds
+ * still in the delta sets, i.e. just before a compaction.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class SearchIndexBenchmark {
+
+    private static final int COUPONS = 5_000_000;
+    private static final int VOCABULARY = 2_000;
+    private static final int WORDS_PER_DESCRIPTION = 4;
+    private static final int LIMIT = 20;
+    // Spreads the coupons evenly over the whole code space.
+    private static final long STRIDE = 2_176_782_336L / COUPONS;
+
+    @Param({"0", "100000"})
+    private int pending;
+
+    private CouponTextIndex index;
+    private String[] words;
+    private String[] prefixes;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        words = new String[VOCABULARY];
+        for (int i = 0; i < VOCABULARY; i++) {
+            words[i] = "word" + i;
+        }
+        prefixes = new String[1_296];
+        for (int i = 0; i < prefixes.length; i++) {
+            prefixes[i] = CouponCode.fromKey((long) i * 36 * 36 * 36 * 36).substring(0, 2);
+        }
+
+        SplittableRandom random = new SplittableRandom(42);
+        CouponTextIndex.Builder builder = CouponTextIndex.builder();
+        for (long i = 0; i < COUPONS; i++) {
+            builder.add(i * STRIDE, description(random));
+        }
+        index = builder.build();
+        for (int i = 0; i < pending; i++) {
+            index.add(random.nextLong(COUPONS) * STRIDE + 1, description(random));
+        }
+    }
+
+    @Benchmark
+    public List<Long> codePrefix() {
+        return index.byCodePrefix(prefixes[ThreadLocalRandom.current().nextInt(prefixes.length)], LIMIT);
+    }
+
+    @Benchmark
+    public List<Long> oneWord() {
+        return index.byTokens(word(), LIMIT);
+    }
+
+    @Benchmark
+    public List<Long> twoWords() {
+        return index.byTokens(word() + " " + word(), LIMIT);
+    }
+
+    private String description(SplittableRandom random) {
+        StringBuilder description = new StringBuilder("Coupon");
+        for (int i = 0; i < WORDS_PER_DESCRIPTION; i++) {
+            double skewed = random.nextDouble();
+            description.append(' ').append(words[(int) (skewed * skewed * VOCABULARY)]);
+        }
+        return description.toString();
+    }
+
+    private String word() {
+        double skewed = ThreadLocalRandom.current().nextDouble();
+        return words[(int) (skewed * skewed * VOCABULARY)];
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.coupon.benchmark;
+
+import com.example.coupon.entity.CouponEntity;
+import com.example.coupon.entity.CouponStatus;
+import com.example.coupon.repository.CouponRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Repeated reads of a small set of hot coupons by id and by code, each in its own read-only
+ * transaction, with the second-level and natural-id caches switched on and off.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SecondLevelCacheBenchmark {
+
+    private static final int ROWS = 100_000;
+    private static final int HOT = 100;
+
+    @Param({"true", "false"})
+    public boolean secondLevelCache;
+
+    private ConfigurableApplicationContext context;
+    private CouponRepository repository;
+    private TransactionTemplate readOnly;
+    private UUID[] hotIds;
+    private String[] hotCodes;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start(
+                "coupon.sweeper.enabled=false",
+                "spring.jpa.properties.hibernate.cache.use_second_level_cache=" + secondLevelCache
+        );
+        BenchmarkContext.seed(context, ROWS);
+        repository = context.getBean(CouponRepository.class);
+        readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnly.setReadOnly(true);
+
+        List<CouponEntity> hot = repository.findAllByStatus(CouponStatus.ACTIVE, PageRequest.ofSize(HOT)).getContent();
+        hotIds = hot.stream().map(CouponEntity::getId).toArray(UUID[]::new);
+        hotCodes = hot.stream().map(CouponEntity::getCode).toArray(String[]::new);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public CouponEntity findById() {
+        UUID id = hotIds[ThreadLocalRandom.current().nextInt(HOT)];
+        return readOnly.execute(status -> repository.findById(id).orElseThrow());
+    }
+
+    @Benchmark
+    public CouponEntity findByCode() {
+        String code = hotCodes[ThreadLocalRandom.current().nextInt(HOT)];
+        return readOnly.execute(status -> repository.findByCode(code).orElseThrow());
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.coupon.benchmark;
+
+import com.example.coupon.dto.CouponResponse;
+import com.example.coupon.entity.CouponEntity;
+import com.example.coupon.mapper.CouponMapper;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson cost of the response bodies, configured the way Spring MVC configures its ObjectMapper.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SerializationBenchmark {
+
+    @Param({"10", "100"})
+    private int pageSize;
+
+    private ObjectMapper objectMapper;
+    private CouponResponse single;
+    private Page<CouponResponse> page;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        CouponMapper mapper = new CouponMapper();
+
+        List<CouponResponse> content = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            content.add(mapper.toResponse(CouponEntity.create(
+                    BenchmarkContext.code(i),
+                    "Coupon number " + i,
+                    BigDecimal.valueOf(5 + i % 20),
+                    LocalDateTime.now().plusDays(1 + i),
+                    i % 2 == 0
+            )));
+        }
+        single = content.get(0);
+        page = new PageImpl<>(content, PageRequest.of(3, pageSize), 10_000);
+    }
+
+    @Benchmark
+    public byte[] couponResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(single);
+    }
+
+    @Benchmark
+    public byte[] couponPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(page);
+    }
+}
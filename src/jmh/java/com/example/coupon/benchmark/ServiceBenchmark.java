@@ -0,0 +1,74 @@
+package com.example.coupon.benchmark;
+
+import com.example.coupon.dto.CouponRequest;
+import com.example.coupon.dto.CouponResponse;
+import com.example.coupon.entity.CouponEntity;
+import com.example.coupon.service.CouponService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-process end-to-end service calls against in-memory H2: transactions, Hibernate and JDBC
+ * included, HTTP excluded.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ServiceBenchmark {
+
+    private ConfigurableApplicationContext context;
+    private CouponService service;
+    private UUID existingId;
+    private int nextCode;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        service = context.getBean(CouponService.class);
+        existingId = service.create(request(nextCode++)).getId();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public CouponEntity create() {
+        return service.create(request(nextCode++));
+    }
+
+    @Benchmark
+    public CouponResponse getById() {
+        return service.getById(existingId);
+    }
+
+    private static CouponRequest request(int sequence) {
+        CouponRequest request = new CouponRequest();
+        request.setCode(BenchmarkContext.code(sequence));
+        request.setDescription("Benchmark coupon");
+        request.setDiscountValue(BigDecimal.TEN);
+        request.setExpirationDate(LocalDateTime.now().plusDays(30));
+        request.setPublished(true);
+        return request;
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.coupon.cache;
+
+import com.example.coupon.dto.CacheStatsResponse;
+import com.example.coupon.dto.CouponResponse;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Bounded in-process cache of coupon responses keyed by the packed code key
+ * (see {@link com.example.coupon.value.CouponCode#toKey(CharSequence)}).
+ * Entries are evicted by size and by time since write, so stale reads are bounded by the TTL
+ * even for changes made by other instances. A reverse index from coupon id to code key lets
+ * statement-level updates, which only know ids, invalidate what is cached.
+ */
+@Component
+public class CouponCodeCache implements MeterBinder {
+
+    private final Cache<Long, CouponResponse> cache;
+    private final Map<UUID, Long> keysById = new ConcurrentHashMap<>();
+
+    public CouponCodeCache(
+            @Value("${coupon.cache.code.maximum-size:10000}") long maximumSize,
+            @Value("${coupon.cache.code.ttl:30s}") Duration ttl
+    ) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                // Runs synchronously with size and expiry evictions; explicit removals clean up in remove().
+                .evictionListener((Long key, CouponResponse value, RemovalCause cause) -> {
+                    if (key != null && value != null) {
+                        keysById.remove(value.id(), key);
+                    }
+                })
+                .build();
+    }
+
+    public CouponResponse get(long codeKey, Function<Long, CouponResponse> loader) {
+        return cache.get(codeKey, key -> {
+            CouponResponse response = loader.apply(key);
+            keysById.put(response.id(), key);
+            return response;
+        });
+    }
+
+    /**
+     * Bulk form of {@link #get(long, Function)}: {@code loader} is called once, with every key that
+     * is not cached. Keys it finds no coupon for are left out of the result and are not cached.
+     */
+    public Map<Long, CouponResponse> getAll(Collection<Long> codeKeys, Function<Set<Long>, Map<Long, CouponResponse>> loader) {
+        return cache.getAll(codeKeys, missing -> {
+            Map<Long, CouponResponse> loaded = loader.apply(Set.copyOf(missing));
+            loaded.forEach((key, response) -> keysById.put(response.id(), key));
+            return loaded;
+        });
+    }
+
+    /**
+     * Drops the entry now and again once the surrounding transaction commits, so a concurrent
+     * reader cannot repopulate the cache with the pre-commit state.
+     */
+    public void invalidate(long codeKey) {
+        remove(codeKey);
+        afterCommit(() -> remove(codeKey));
+    }
+
+    /**
+     * Same as {@link #invalidate(long)} for a coupon known only by id. Ids that are not cached are a no-op.
+     */
+    public void invalidateById(UUID id) {
+        removeById(id);
+        afterCommit(() -> removeById(id));
+    }
+
+    public void invalidateAllById(Collection<UUID> ids) {
+        ids.forEach(this::removeById);
+        afterCommit(() -> ids.forEach(this::removeById));
+    }
+
+    private void removeById(UUID id) {
+        Long codeKey = keysById.get(id);
+        if (codeKey != null) {
+            remove(codeKey);
+        }
+    }
+
+    private void remove(long codeKey) {
+        CouponResponse removed = cache.asMap().remove(codeKey);
+        if (removed != null) {
+            keysById.remove(removed.id(), codeKey);
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "coupon.code");
+    }
+
+    public CacheStatsResponse stats() {
+        CacheStats stats = cache.stats();
+        return new CacheStatsResponse(
+                cache.estimatedSize(),
+                stats.hitCount(),
+                stats.missCount(),
+                stats.evictionCount(),
+                stats.hitRate()
+        );
+    }
+}
@@ -0,0 +1,138 @@
+package com.example.coupon.cache;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free Bloom filter over packed coupon code keys. "Absent" answers are definite, so callers
+ * can skip the existence query for them; "present" answers may be false positives. Until the
+ * filter has been loaded with the existing codes every answer is "present".
+ * Codes are never removed (soft-deleted coupons keep their code), so a plain Bloom filter is enough.
+ */
+@Component
+public class CouponCodeFilter implements MeterBinder {
+
+    private final AtomicLongArray words;
+    private final long bitCount;
+    private final int hashCount;
+    private final AtomicLong insertions = new AtomicLong();
+    private final LongAdder confirmedPresent = new LongAdder();
+    private final LongAdder falsePositives = new LongAdder();
+    private volatile boolean loaded;
+
+    public CouponCodeFilter(
+            @Value("${coupon.code-filter.expected-insertions:1000000}") long expectedInsertions,
+            @Value("${coupon.code-filter.false-positive-rate:0.01}") double falsePositiveRate
+    ) {
+        long bits = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        this.words = new AtomicLongArray((int) ((bits + 63) / 64));
+        this.bitCount = words.length() * 64L;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedInsertions * Math.log(2)));
+    }
+
+    public void put(long key) {
+        long hash1 = mix(key);
+        long hash2 = mix(hash1);
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(hash1 + i * hash2, bitCount);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long current;
+            do {
+                current = words.get(word);
+                if ((current & mask) != 0) {
+                    break;
+                }
+            } while (!words.compareAndSet(word, current, current | mask));
+        }
+        insertions.incrementAndGet();
+    }
+
+    public boolean mightContain(long key) {
+        if (!loaded) {
+            return true;
+        }
+        long hash1 = mix(key);
+        long hash2 = mix(hash1);
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(hash1 + i * hash2, bitCount);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Feeds back the database answer for a key the filter reported as present, so the observed
+     * false positive rate can be reported.
+     */
+    public void recordLookup(boolean actuallyPresent) {
+        if (loaded) {
+            if (actuallyPresent) {
+                confirmedPresent.increment();
+            } else {
+                falsePositives.increment();
+            }
+        }
+    }
+
+    void markLoaded() {
+        loaded = true;
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    public long memoryBytes() {
+        return words.length() * 8L;
+    }
+
+    /**
+     * Theoretical false positive probability for the current number of insertions.
+     */
+    public double expectedFalsePositiveRate() {
+        return Math.pow(1 - Math.exp(-hashCount * (double) insertions.get() / bitCount), hashCount);
+    }
+
+    public double observedFalsePositiveRate() {
+        long falsePositive = falsePositives.sum();
+        long total = falsePositive + confirmedPresent.sum();
+        return total == 0 ? 0 : (double) falsePositive / total;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("coupon.code.filter.memory", this, CouponCodeFilter::memoryBytes)
+                .baseUnit("bytes")
+                .description("Memory used by the code Bloom filter bit set")
+                .register(registry);
+        Gauge.builder("coupon.code.filter.insertions", insertions, AtomicLong::get)
+                .description("Codes added to the Bloom filter")
+                .register(registry);
+        Gauge.builder("coupon.code.filter.fpp.expected", this, CouponCodeFilter::expectedFalsePositiveRate)
+                .description("Theoretical false positive probability at the current fill")
+                .register(registry);
+        Gauge.builder("coupon.code.filter.fpp.observed", this, CouponCodeFilter::observedFalsePositiveRate)
+                .description("Share of 'maybe present' answers the database contradicted")
+                .register(registry);
+        Gauge.builder("coupon.code.filter.false.positives", falsePositives, LongAdder::sum)
+                .description("'Maybe present' answers the database contradicted")
+                .register(registry);
+    }
+
+    private static long mix(long value) {
+        // SplitMix64 finalizer: spreads the dense base-36 keys over the whole bit set.
+        value = (value ^ (value >>> 30)) * 0xbf58476d1ce4e5b9L;
+        value = (value ^ (value >>> 27)) * 0x94d049bb133111ebL;
+        return value ^ (value >>> 31);
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.coupon.cache;
+
+import com.example.coupon.repository.CouponRepository;
+import com.example.coupon.value.CouponCode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.stream.Stream;
+
+/**
+ * Loads every existing code into the {@link CouponCodeFilter} once the application is up, with a
+ * streaming scan so memory does not grow with the table. Codes created meanwhile are added by the
+ * write paths directly, so nothing is missed while the scan runs.
+ */
+@Component
+public class CouponCodeFilterLoader {
+
+    private static final Logger log = LoggerFactory.getLogger(CouponCodeFilterLoader.class);
+
+    private final CouponRepository repository;
+    private final CouponCodeFilter filter;
+    private final TransactionTemplate transactionTemplate;
+
+    public CouponCodeFilterLoader(CouponRepository repository, CouponCodeFilter filter, PlatformTransactionManager transactionManager) {
+        this.repository = repository;
+        this.filter = filter;
+        // Deliberately not read-only, so the scan runs on the primary when a replica is configured:
+        // codes the replica has not received yet would become false "absent" answers.
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long startedAt = System.nanoTime();
+        Long loaded = transactionTemplate.execute(status -> {
+            long count = 0;
+            try (Stream<String> codes = repository.streamAllCodes()) {
+                for (String code : (Iterable<String>) codes::iterator) {
+                    filter.put(CouponCode.toKey(code));
+                    count++;
+                }
+            }
+            return count;
+        });
+        filter.markLoaded();
+        log.info("Coupon code filter loaded with {} codes in {} ms ({} bytes)",
+                loaded, (System.nanoTime() - startedAt) / 1_000_000, filter.memoryBytes());
+    }
+}
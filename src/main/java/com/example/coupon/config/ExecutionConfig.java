@@ -0,0 +1,36 @@
+package com.example.coupon.config;
+
+import com.example.coupon.web.ConcurrencyLimitFilter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Execution mode is chosen with {@code spring.threads.virtual.enabled}: when true, Tomcat runs
+ * every request (and the transactional service calls it makes) on a virtual thread. The
+ * concurrency limit below is what keeps that mode from overrunning the connection pool.
+ */
+@Configuration
+public class ExecutionConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "coupon.concurrency.limit.enabled", havingValue = "true")
+    public FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilter(
+            @Value("${coupon.concurrency.limit.max-in-flight:${spring.datasource.hikari.maximum-pool-size:10}}") int maxInFlight,
+            @Value("${coupon.concurrency.limit.acquire-timeout:2s}") Duration acquireTimeout,
+            ObjectMapper objectMapper,
+            MeterRegistry registry
+    ) {
+        FilterRegistrationBean<ConcurrencyLimitFilter> registration = new FilterRegistrationBean<>(
+                new ConcurrencyLimitFilter(maxInFlight, acquireTimeout, objectMapper, registry)
+        );
+        registration.addUrlPatterns("/coupon", "/coupon/*");
+        return registration;
+    }
+}
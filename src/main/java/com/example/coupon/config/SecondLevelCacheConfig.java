@@ -0,0 +1,69 @@
+package com.example.coupon.config;
+
+import com.example.coupon.entity.CouponEntity;
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import java.time.Duration;
+import java.util.List;
+import java.util.OptionalLong;
+
+/**
+ * Caffeine-backed JCache regions for the Hibernate second-level cache. The regions are created here
+ * with explicit bounds, so Hibernate never falls back to an unbounded default region.
+ */
+@Configuration
+public class SecondLevelCacheConfig {
+
+    /**
+     * A private provider instance rather than {@code Caching.getCachingProvider()}, whose cache
+     * managers are shared per class loader and would mix regions of different application contexts.
+     */
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(
+            @Value("${coupon.cache.entity.maximum-size:50000}") long entityMaximumSize,
+            @Value("${coupon.cache.entity.ttl:60s}") Duration entityTtl,
+            @Value("${coupon.cache.natural-id.maximum-size:50000}") long naturalIdMaximumSize,
+            @Value("${coupon.cache.natural-id.ttl:10m}") Duration naturalIdTtl
+    ) {
+        CacheManager cacheManager = new CaffeineCachingProvider().getCacheManager();
+        cacheManager.createCache(CouponEntity.CACHE_REGION, region(entityMaximumSize, entityTtl));
+        cacheManager.createCache(CouponEntity.CODE_CACHE_REGION, region(naturalIdMaximumSize, naturalIdTtl));
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheManager(CacheManager hibernateCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+    }
+
+    /**
+     * Size and evictions per region. Hit ratio and puts come from Hibernate's own statistics as the
+     * {@code hibernate.second.level.cache.*} and {@code hibernate.cache.natural.id.*} meters.
+     */
+    @Bean
+    public MeterBinder secondLevelCacheMetrics(CacheManager hibernateCacheManager) {
+        return registry -> {
+            for (String region : List.of(CouponEntity.CACHE_REGION, CouponEntity.CODE_CACHE_REGION)) {
+                JCacheMetrics.monitor(registry, hibernateCacheManager.getCache(region));
+            }
+        };
+    }
+
+    private static CaffeineConfiguration<Object, Object> region(long maximumSize, Duration ttl) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(OptionalLong.of(maximumSize));
+        configuration.setExpireAfterWrite(OptionalLong.of(ttl.toNanos()));
+        configuration.setStoreByValue(false);
+        configuration.setStatisticsEnabled(true);
+        return configuration;
+    }
+}
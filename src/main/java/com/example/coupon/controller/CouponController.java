@@ -1,10 +1,26 @@
 package com.example.coupon.controller;
 
+import com.example.coupon.cache.CouponCodeCache;
+import com.example.coupon.dto.BatchCreateResponse;
+import com.example.coupon.dto.BulkDeleteResponse;
+import com.example.coupon.dto.CacheStatsResponse;
+import com.example.coupon.dto.CodeValidationResponse;
 import com.example.coupon.dto.CouponRequest;
 import com.example.coupon.dto.CouponResponse;
+import com.example.coupon.dto.CursorPage;
 import com.example.coupon.entity.CouponEntity;
+import com.example.coupon.entity.CouponStatus;
+import com.example.coupon.exception.BusinessException;
+import com.example.coupon.feed.CouponChangeFeed;
 import com.example.coupon.mapper.CouponMapper;
+import com.example.coupon.pagination.KeysetCursor;
+import com.example.coupon.service.CouponBatchService;
+import com.example.coupon.service.CouponExportService;
+import com.example.coupon.service.CouponSearchService;
 import com.example.coupon.service.CouponService;
+import com.example.coupon.service.CouponValidationService;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -12,11 +28,16 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.ErrorResponse;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -24,22 +45,61 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/coupon")
 public class CouponController {
 
     private final CouponService service;
+    private final CouponBatchService batchService;
+    private final CouponExportService exportService;
+    private final CouponValidationService validationService;
+    private final CouponSearchService searchService;
+    private final CouponChangeFeed changeFeed;
     private final CouponMapper mapper;
+    private final CouponCodeCache codeCache;
+    private final ObjectMapper objectMapper;
+    private final int maxPageSize;
+    private final int maxValidateCodes;
 
-    public CouponController(CouponService service, CouponMapper mapper) {
+    public CouponController(
+            CouponService service,
+            CouponBatchService batchService,
+            CouponExportService exportService,
+            CouponValidationService validationService,
+            CouponSearchService searchService,
+            CouponChangeFeed changeFeed,
+            CouponMapper mapper,
+            CouponCodeCache codeCache,
+            ObjectMapper objectMapper,
+            @Value("${coupon.page.max-size:100}") int maxPageSize,
+            @Value("${coupon.validate.max-codes:1000}") int maxValidateCodes
+    ) {
         this.service = service;
+        this.batchService = batchService;
+        this.exportService = exportService;
+        this.validationService = validationService;
+        this.searchService = searchService;
+        this.changeFeed = changeFeed;
         this.mapper = mapper;
+        this.codeCache = codeCache;
+        this.objectMapper = objectMapper;
+        this.maxPageSize = maxPageSize;
+        this.maxValidateCodes = maxValidateCodes;
     }
 
     @Operation(
@@ -74,6 +134,33 @@ public class CouponController {
                 .body(mapper.toResponse(coupon));
     }
 
+    @Operation(
+            summary = "Create coupons in batch",
+            description = "Creates many coupons in one call. Each item goes through the same validation as the " +
+                    "single create endpoint; duplicates inside the batch and against existing coupons are " +
+                    "rejected per item. Items are inserted in chunks, each chunk in its own transaction. " +
+                    "Accepts a JSON array or an NDJSON stream (application/x-ndjson)."
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Batch processed, see per-item results",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = BatchCreateResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Malformed request body",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<BatchCreateResponse> createBatch(@RequestBody List<CouponRequest> requests) {
+        return ResponseEntity.ok(batchService.createAll(requests.iterator()));
+    }
+
+    @Operation(hidden = true)
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<BatchCreateResponse> createBatchFromStream(InputStream body) throws IOException {
+        try (MappingIterator<CouponRequest> requests = objectMapper.readerFor(CouponRequest.class).readValues(body)) {
+            return ResponseEntity.ok(batchService.createAll(requests));
+        }
+    }
 
     @GetMapping("/{id}")
     @Operation(
@@ -82,30 +169,228 @@ public class CouponController {
     )
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Coupon found"),
+            @ApiResponse(responseCode = "304", description = "Coupon unchanged since the ETag in If-None-Match"),
             @ApiResponse(responseCode = "404", description = "Coupon not found")
     })
-    public ResponseEntity<CouponResponse> getById(@PathVariable UUID id) {
-        return ResponseEntity.ok(
-                mapper.toResponse(service.getById(id))
-        );
+    public ResponseEntity<CouponResponse> getById(@PathVariable UUID id, WebRequest request) {
+        // Conditional requests are answered from the version column alone, before the row is
+        // loaded and serialized.
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+                && request.checkNotModified(couponETag(service.getVersion(id)))) {
+            return null;
+        }
+        CouponResponse coupon = service.getById(id);
+        return ResponseEntity.ok()
+                .eTag(couponETag(coupon.version()))
+                .body(coupon);
+    }
+
+    @GetMapping("/code/{code}")
+    @Operation(
+            summary = "Get coupon by code",
+            description = "Returns the coupon details by its code. The code is sanitized the same way as on " +
+                    "creation and lookups are served from a bounded in-process cache."
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Coupon found"),
+            @ApiResponse(responseCode = "400", description = "Invalid code or coupon not found")
+    })
+    public ResponseEntity<CouponResponse> getByCode(@PathVariable String code) {
+        return ResponseEntity.ok(service.getByCode(code));
+    }
+
+    @GetMapping("/cache/stats")
+    @Operation(
+            summary = "Lookup-by-code cache statistics",
+            description = "Returns hit, miss and eviction counters of the lookup-by-code cache."
+    )
+    public ResponseEntity<CacheStatsResponse> cacheStats() {
+        return ResponseEntity.ok(codeCache.stats());
     }
 
     @GetMapping
     @Operation(
             summary = "List coupons",
-            description = "Returns a paginated list of coupons ordered by expiration date in ascending order."
+            description = "Returns a paginated list of coupons ordered by expiration date in ascending order. " +
+                    "Deep pages get slower as the offset grows; prefer /coupon/scroll to walk the whole listing. " +
+                    "The ETag changes whenever any coupon changes; send it back in If-None-Match to get a 304."
     )
     public ResponseEntity<Page<CouponResponse>> list(
             @Parameter(description = "Page number", example = "0")
             @RequestParam(defaultValue = "0") int page,
 
-            @Parameter(description = "Page size", example = "10")
-            @RequestParam(defaultValue = "10") int size
+            @Parameter(description = "Page size, at most 100", example = "10")
+            @RequestParam(defaultValue = "10") int size,
+
+            WebRequest request
+    ) {
+        Pageable pageable = PageRequest.of(page, checkedPageSize(size), Sort.by("expirationDate").ascending());
+        // Read before the page: a change in between yields fresh content under the older tag,
+        // which only costs the client one more full response.
+        String eTag = listingETag(service.listingVersion());
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(eTag).body(service.listAll(pageable));
+    }
+
+    @GetMapping("/scroll")
+    @Operation(
+            summary = "Scroll coupons",
+            description = "Returns active coupons ordered by expiration date using keyset pagination. " +
+                    "Pass the returned nextCursor to fetch the following slice; latency does not depend " +
+                    "on how far the listing has been scrolled and no total count is computed. " +
+                    "Supports If-None-Match like the paginated listing."
+    )
+    public ResponseEntity<CursorPage<CouponResponse>> scroll(
+            @Parameter(description = "Continuation token from the previous slice; omit for the first slice")
+            @RequestParam(required = false) String cursor,
+
+            @Parameter(description = "Slice size, at most 100", example = "10")
+            @RequestParam(defaultValue = "10") int size,
+
+            WebRequest request
+    ) {
+        KeysetCursor after = cursor == null ? null : KeysetCursor.decode(cursor);
+        String eTag = listingETag(service.listingVersion());
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+        Slice<CouponResponse> slice = service.scroll(after, checkedPageSize(size));
+
+        List<CouponResponse> content = slice.getContent();
+        String nextCursor = slice.hasNext()
+                ? KeysetCursor.after(content.get(content.size() - 1)).encode()
+                : null;
+
+        return ResponseEntity.ok().eTag(eTag).body(new CursorPage<>(
+                content,
+                content.size(),
+                slice.hasNext(),
+                nextCursor
+        ));
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(
+            summary = "Export coupons",
+            description = "Streams every matching coupon as newline-delimited JSON, reading from a forward-only " +
+                    "database cursor, so memory use does not depend on the number of coupons. " +
+                    "All filters are optional."
+    )
+    public ResponseEntity<StreamingResponseBody> export(
+            @Parameter(description = "Only coupons with this status", example = "ACTIVE")
+            @RequestParam(required = false) CouponStatus status,
+
+            @Parameter(description = "Only coupons expiring at or after this instant", example = "2026-01-01T00:00:00")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime expiresFrom,
+
+            @Parameter(description = "Only coupons expiring before this instant", example = "2027-01-01T00:00:00")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime expiresTo,
+
+            @Parameter(description = "Compress the stream with gzip", example = "false")
+            @RequestParam(defaultValue = "false") boolean gzip
     ) {
-        Pageable pageable = PageRequest.of(page, size, Sort.by("expirationDate").ascending());
-        Page<CouponResponse> response = service.listAll(pageable)
-                .map(mapper::toResponse);
-        return ResponseEntity.ok(response);
+        StreamingResponseBody body = out -> {
+            if (gzip) {
+                GZIPOutputStream compressed = new GZIPOutputStream(out, 64 * 1024);
+                exportService.export(status, expiresFrom, expiresTo, compressed);
+                compressed.finish();
+            } else {
+                exportService.export(status, expiresFrom, expiresTo, out);
+            }
+        };
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+
+    @PostMapping(value = "/validate", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(
+            summary = "Validate coupon codes",
+            description = "Checks a list of raw codes in one call, e.g. every code of a checkout cart, and returns a " +
+                    "verdict and the discount of each code in request order. Codes are sanitized like everywhere else; " +
+                    "the ones not in the code cache are resolved together with one IN query. Validation does not " +
+                    "reserve anything: redeeming is still the authoritative check. At most 1000 codes per call by default."
+    )
+    public ResponseEntity<CodeValidationResponse> validate(@RequestBody List<String> codes) {
+        if (codes.size() > maxValidateCodes) {
+            throw new BusinessException("At most " + maxValidateCodes + " codes can be validated at once");
+        }
+        return ResponseEntity.ok(CodeValidationResponse.of(validationService.validate(codes)));
+    }
+
+    @GetMapping("/search")
+    @Operation(
+            summary = "Search coupons",
+            description = "Finds coupons by the start of their code or by words of their description, e.g. \"BL\" or " +
+                    "\"black friday\". Codes starting with the query come first, then coupons whose description " +
+                    "contains every word of it (case and accents are ignored). Matching runs on an in-memory index " +
+                    "that follows the change feed, so a new coupon shows up about a second after it is created. " +
+                    "Answers 503 while the index is still loading after startup."
+    )
+    public ResponseEntity<List<CouponResponse>> search(
+            @Parameter(description = "Code prefix or description words", example = "black friday")
+            @RequestParam String q,
+
+            @Parameter(description = "Maximum number of coupons to return", example = "20")
+            @RequestParam(defaultValue = "20") int limit
+    ) {
+        return ResponseEntity.ok(searchService.search(q, checkedPageSize(limit)));
+    }
+
+    @GetMapping(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(
+            summary = "Stream coupon changes",
+            description = "Server-Sent Events stream of coupon changes (created, redeemed, status changed, deleted), " +
+                    "for caches that invalidate incrementally instead of rescanning. Each changes event carries a " +
+                    "JSON array of CouponChangeResponse in sequence order and has the last sequence number as its id, " +
+                    "so a reconnecting EventSource resumes through Last-Event-ID. A reset event means the requested " +
+                    "position is no longer kept: rescan, then apply the changes that follow."
+    )
+    public SseEmitter changes(
+            @Parameter(description = "Resume after this sequence number; without it the stream starts with the next change",
+                    example = "1042")
+            @RequestParam(required = false) Long since,
+
+            @Parameter(hidden = true)
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId
+    ) {
+        // Sent by EventSource on reconnect, and newer than the since of the original URL.
+        return changeFeed.subscribe(lastEventId != null ? lastEventId : since);
+    }
+
+    @Operation(
+            summary = "Redeem a coupon",
+            description = "Redeems a coupon by its code. Only active, non-expired coupons that were not redeemed yet " +
+                    "can be redeemed, and concurrent redemptions of the same code have exactly one winner. " +
+                    "Multi-use coupons accept up to maxRedemptions redemptions in total. " +
+                    "Each redemption is made durable in the redemption journal before the response is sent."
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Coupon successfully redeemed",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = CouponResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Coupon not found, inactive or expired, or order reference too long",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "409", description = "Coupon already redeemed or redemption limit reached",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @PostMapping("/{code}/redeem")
+    public ResponseEntity<CouponResponse> redeem(
+            @PathVariable String code,
+            @Parameter(description = "Caller's order reference, kept in the redemption audit record (at most 64 bytes)")
+            @RequestParam(required = false) String orderReference
+    ) {
+        return ResponseEntity.ok(
+                mapper.toResponse(service.redeem(code, orderReference))
+        );
     }
 
     @Operation(
@@ -124,4 +409,37 @@ public class CouponController {
         service.delete(id);
         return ResponseEntity.noContent().build();
     }
+
+    @Operation(
+            summary = "Delete coupons in bulk",
+            description = "Soft deletes every coupon in the list with set-based updates, in chunks that each " +
+                    "commit on their own. Ids that do not exist or are already deleted are counted as skipped."
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Bulk delete processed",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = BulkDeleteResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Malformed request body",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @DeleteMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<BulkDeleteResponse> deleteBatch(@RequestBody List<UUID> ids) {
+        return ResponseEntity.ok(batchService.deleteAll(ids));
+    }
+
+    private static String couponETag(long version) {
+        return "\"" + version + "\"";
+    }
+
+    private static String listingETag(long changes) {
+        return "\"c" + changes + "\"";
+    }
+
+    private int checkedPageSize(int size) {
+        if (size < 1 || size > maxPageSize) {
+            throw new BusinessException("Page size must be between 1 and " + maxPageSize);
+        }
+        return size;
+    }
 }
@@ -0,0 +1,76 @@
+package com.example.coupon.controller;
+
+import com.example.coupon.dto.ImportJobResponse;
+import com.example.coupon.importing.CouponImportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.InputStream;
+import java.util.List;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/coupon/import")
+public class CouponImportController {
+
+    private final CouponImportService importService;
+
+    public CouponImportController(CouponImportService importService) {
+        this.importService = importService;
+    }
+
+    @Operation(
+            summary = "Import coupons from a file",
+            description = "Streams a CSV (text/csv, with a header row naming code, description, discountValue, " +
+                    "expirationDate and optionally published) or NDJSON (application/x-ndjson) upload. Rows are " +
+                    "parsed while the upload arrives and committed in chunks; memory use does not depend on the " +
+                    "file size. Progress of running imports is visible through GET /coupon/import."
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Import finished, see counters and reject samples",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ImportJobResponse.class)))
+    })
+    @PostMapping(consumes = "text/csv")
+    public ResponseEntity<ImportJobResponse> importCsv(InputStream body) {
+        return ResponseEntity.ok(importService.importCoupons(body, CouponImportService.CSV));
+    }
+
+    @Operation(hidden = true)
+    @PostMapping(consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<ImportJobResponse> importNdjson(InputStream body) {
+        return ResponseEntity.ok(importService.importCoupons(body, CouponImportService.NDJSON));
+    }
+
+    @GetMapping
+    @Operation(
+            summary = "List import jobs",
+            description = "Returns the most recent import jobs, running ones included, newest first."
+    )
+    public ResponseEntity<List<ImportJobResponse>> list() {
+        return ResponseEntity.ok(importService.listJobs());
+    }
+
+    @GetMapping("/{id}")
+    @Operation(
+            summary = "Get import job",
+            description = "Returns progress and reject counters of an import job."
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Import job found"),
+            @ApiResponse(responseCode = "400", description = "Import job not found")
+    })
+    public ResponseEntity<ImportJobResponse> get(@PathVariable UUID id) {
+        return ResponseEntity.ok(importService.getJob(id));
+    }
+}
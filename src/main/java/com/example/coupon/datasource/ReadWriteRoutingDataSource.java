@@ -0,0 +1,62 @@
+package com.example.coupon.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Sends read-only transactions to the replica and everything else to the primary. A read-only
+ * transaction that follows a write on the same thread within the stickiness window also goes to
+ * the primary, since the replica may not have caught up yet.
+ * <p>
+ * The lookup runs when a connection is actually needed, so this must sit behind a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}: the transaction
+ * manager opens its connection before the read-only flag of the transaction is published.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    enum Target { PRIMARY, REPLICA }
+
+    private final long stickinessNanos;
+    private final Counter primaryRoutes;
+    private final Counter replicaRoutes;
+    private final Counter fallbackRoutes;
+
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica, Duration stickiness, MeterRegistry registry) {
+        setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        this.stickinessNanos = stickiness.toNanos();
+        this.primaryRoutes = route(registry, "primary");
+        this.replicaRoutes = route(registry, "replica");
+        this.fallbackRoutes = route(registry, "primary_after_write");
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                ReadYourWrites.markWrite();
+            }
+            primaryRoutes.increment();
+            return Target.PRIMARY;
+        }
+        if (ReadYourWrites.wroteWithin(stickinessNanos)) {
+            fallbackRoutes.increment();
+            return Target.PRIMARY;
+        }
+        replicaRoutes.increment();
+        return Target.REPLICA;
+    }
+
+    private static Counter route(MeterRegistry registry, String target) {
+        return Counter.builder("coupon.datasource.routed")
+                .description("Connections handed out by the read/write router")
+                .tag("target", target)
+                .register(registry);
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.coupon.datasource;
+
+/**
+ * Per-thread marker of the last write, so reads that follow a write in the same request see it
+ * even when the replica lags. Request threads are cleared by
+ * {@link com.example.coupon.web.ReadYourWritesFilter}; other threads fall back to the primary
+ * only for the stickiness window after their own writes.
+ */
+public final class ReadYourWrites {
+
+    private static final ThreadLocal<Long> LAST_WRITE = new ThreadLocal<>();
+
+    private ReadYourWrites() {}
+
+    static void markWrite() {
+        LAST_WRITE.set(System.nanoTime());
+    }
+
+    static boolean wroteWithin(long windowNanos) {
+        Long lastWrite = LAST_WRITE.get();
+        return lastWrite != null && System.nanoTime() - lastWrite < windowNanos;
+    }
+
+    public static void clear() {
+        LAST_WRITE.remove();
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.coupon.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "Result of a batch coupon creation")
+public record BatchCreateResponse(
+        @Schema(description = "Number of items received", example = "3")
+        int total,
+
+        @Schema(description = "Number of coupons created", example = "2")
+        int created,
+
+        @Schema(description = "Number of items rejected", example = "1")
+        int rejected,
+
+        @Schema(description = "Per-item results, in request order")
+        List<BatchItemResult> items
+) {
+
+    public static BatchCreateResponse of(List<BatchItemResult> items) {
+        int created = (int) items.stream()
+                .filter(item -> item.status() == BatchItemResult.Status.CREATED)
+                .count();
+        return new BatchCreateResponse(items.size(), created, items.size() - created, items);
+    }
+}
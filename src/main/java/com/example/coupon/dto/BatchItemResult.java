@@ -0,0 +1,37 @@
+package com.example.coupon.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.UUID;
+
+@Schema(description = "Outcome of a single item of a batch operation")
+public record BatchItemResult(
+        @Schema(description = "Zero-based position of the item in the request", example = "0")
+        int index,
+
+        @Schema(description = "Sanitized coupon code, or the raw code when it could not be sanitized", example = "ABY123")
+        String code,
+
+        @Schema(description = "Item outcome", example = "CREATED")
+        Status status,
+
+        @Schema(description = "Identifier of the created coupon", example = "c0a80123-45ab-6789-0abc-def123456789")
+        UUID id,
+
+        @Schema(description = "Reason the item was rejected", example = "Coupon code already exists")
+        String message
+) {
+
+    public enum Status {
+        CREATED,
+        REJECTED
+    }
+
+    public static BatchItemResult created(int index, String code, UUID id) {
+        return new BatchItemResult(index, code, Status.CREATED, id, null);
+    }
+
+    public static BatchItemResult rejected(int index, String code, String message) {
+        return new BatchItemResult(index, code, Status.REJECTED, null, message);
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.coupon.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Result of a bulk coupon deletion")
+public record BulkDeleteResponse(
+        @Schema(description = "Number of distinct ids received", example = "3")
+        int requested,
+
+        @Schema(description = "Number of coupons deleted by this call", example = "2")
+        int deleted,
+
+        @Schema(description = "Ids not found or already deleted", example = "1")
+        int skipped
+) {
+}
@@ -0,0 +1,22 @@
+package com.example.coupon.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Lookup-by-code cache statistics")
+public record CacheStatsResponse(
+        @Schema(description = "Approximate number of cached entries", example = "1520")
+        long size,
+
+        @Schema(description = "Lookups served from the cache", example = "98120")
+        long hitCount,
+
+        @Schema(description = "Lookups that went to the database", example = "4210")
+        long missCount,
+
+        @Schema(description = "Entries evicted by size or expiration", example = "310")
+        long evictionCount,
+
+        @Schema(description = "Ratio of hits over all lookups", example = "0.958")
+        double hitRate
+) {
+}
@@ -0,0 +1,28 @@
+package com.example.coupon.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "Result of validating a list of coupon codes")
+public record CodeValidationResponse(
+        @Schema(description = "Number of codes received", example = "3")
+        int total,
+
+        @Schema(description = "Number of codes that can be redeemed", example = "2")
+        int valid,
+
+        @Schema(description = "Number of codes that cannot be redeemed", example = "1")
+        int invalid,
+
+        @Schema(description = "Per-code verdicts, in request order")
+        List<CodeValidationResult> items
+) {
+
+    public static CodeValidationResponse of(List<CodeValidationResult> items) {
+        int valid = (int) items.stream()
+                .filter(CodeValidationResult::valid)
+                .count();
+        return new CodeValidationResponse(items.size(), valid, items.size() - valid, items);
+    }
+}
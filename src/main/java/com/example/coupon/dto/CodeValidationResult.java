@@ -0,0 +1,36 @@
+package com.example.coupon.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+@Schema(description = "Verdict for a single code of a validation request")
+public record CodeValidationResult(
+        @Schema(description = "Zero-based position of the code in the request", example = "0")
+        int index,
+
+        @Schema(description = "Sanitized coupon code, or the raw code when it could not be sanitized", example = "ABY123")
+        String code,
+
+        @Schema(description = "Whether the coupon can be redeemed right now", example = "true")
+        boolean valid,
+
+        @Schema(description = "Identifier of the coupon, when it exists", example = "c0a80123-45ab-6789-0abc-def123456789")
+        UUID id,
+
+        @Schema(description = "Discount granted by the coupon; only set for valid codes", example = "10.5")
+        BigDecimal discountValue,
+
+        @Schema(description = "Why the code is not valid", example = "Coupon expired")
+        String message
+) {
+
+    public static CodeValidationResult valid(int index, CouponResponse coupon) {
+        return new CodeValidationResult(index, coupon.code(), true, coupon.id(), coupon.discountValue(), null);
+    }
+
+    public static CodeValidationResult invalid(int index, String code, UUID id, String message) {
+        return new CodeValidationResult(index, code, false, id, null, message);
+    }
+}
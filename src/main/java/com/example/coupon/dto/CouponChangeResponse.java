@@ -0,0 +1,36 @@
+package com.example.coupon.dto;
+
+import com.example.coupon.entity.CouponChangeType;
+import com.example.coupon.entity.CouponStatus;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * One entry of the coupon change feed, built straight from a constructor expression in
+ * {@link com.example.coupon.repository.CouponChangeRepository}.
+ */
+public record CouponChangeResponse(
+        @Schema(description = "Position in the change feed; pass the last one seen as since to resume", example = "1042")
+        long seq,
+
+        @Schema(description = "Identifier of the changed coupon", example = "c0a80123-45ab-6789-0abc-def123456789")
+        UUID couponId,
+
+        @Schema(description = "Code of the changed coupon", example = "ABY123")
+        String code,
+
+        @Schema(description = "Kind of change", example = "REDEEMED")
+        CouponChangeType type,
+
+        @Schema(description = "Status of the coupon after the change", example = "ACTIVE")
+        CouponStatus status,
+
+        @Schema(description = "Version of the coupon after the change; matches its ETag", example = "3")
+        long version,
+
+        @Schema(description = "When the change was made", example = "2026-06-01T12:00:00")
+        LocalDateTime changedAt
+) {
+}
@@ -2,6 +2,7 @@ package com.example.coupon.dto;
 
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 
@@ -26,6 +27,9 @@ public class CouponRequest {
 
     private boolean published = false;
 
+    @Min(1)
+    private int maxRedemptions = 1;
+
     public void setCode(String code) {
         this.code = code;
     }
@@ -46,6 +50,10 @@ public class CouponRequest {
         this.published = published;
     }
 
+    public void setMaxRedemptions(int maxRedemptions) {
+        this.maxRedemptions = maxRedemptions;
+    }
+
     public String getCode() {
         return code;
     }
@@ -66,4 +74,8 @@ public class CouponRequest {
         return published;
     }
 
+    public int getMaxRedemptions() {
+        return maxRedemptions;
+    }
+
 }
@@ -7,93 +7,43 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
-public class CouponResponse {
+/**
+ * Read model of a coupon. Immutable, so a single instance can be shared by the code cache and
+ * by concurrent requests; read paths build it straight from a constructor expression in
+ * {@link com.example.coupon.repository.CouponRepository}.
+ */
+public record CouponResponse(
+        @Schema(description = "Unique identifier of the coupon", example = "c0a80123-45ab-6789-0abc-def123456789")
+        UUID id,
 
-    @Schema(description = "Unique identifier of the coupon", example = "c0a80123-45ab-6789-0abc-def123456789")
-    private UUID id;
+        @Schema(description = "Coupon code", example = "ABY123")
+        String code,
 
-    @Schema(description = "Coupon code", example = "ABY123")
-    private String code;
+        @Schema(description = "Coupon description", example = "10% off on next purchase")
+        String description,
 
-    @Schema(description = "Coupon description", example = "10% off on next purchase")
-    private String description;
+        @Schema(description = "Discount value of the coupon", example = "10.5")
+        BigDecimal discountValue,
 
-    @Schema(description = "Discount value of the coupon", example = "10.5")
-    private BigDecimal discountValue;
+        @Schema(description = "Expiration date and time of the coupon", example = "2026-12-31T23:59:59")
+        LocalDateTime expirationDate,
 
-    @Schema(description = "Expiration date and time of the coupon", example = "2026-12-31T23:59:59")
-    private LocalDateTime expirationDate;
+        @Schema(description = "Current status of the coupon", example = "ACTIVE")
+        CouponStatus status,
 
-    @Schema(description = "Current status of the coupon", example = "ACTIVE")
-    private CouponStatus status;
+        @Schema(description = "Whether the coupon is published", example = "true")
+        boolean published,
 
-    @Schema(description = "Whether the coupon is published", example = "true")
-    private boolean published;
+        @Schema(description = "Whether the coupon has been redeemed", example = "false")
+        boolean redeemed,
 
-    @Schema(description = "Whether the coupon has been redeemed", example = "false")
-    private boolean redeemed;
+        @Schema(description = "How many times the code can be redeemed in total", example = "1")
+        int maxRedemptions,
 
-    public void setId(UUID id) {
-        this.id = id;
-    }
+        @Schema(description = "Redemptions so far; for multi-use coupons written behind, so it may trail by a few seconds", example = "0")
+        long redemptionCount,
 
-    public void setCode(String code) {
-        this.code = code;
-    }
-
-    public void setDescription(String description) {
-        this.description = description;
-    }
-
-    public void setDiscountValue(BigDecimal discountValue) {
-        this.discountValue = discountValue;
-    }
-
-    public void setExpirationDate(LocalDateTime expirationDate) {
-        this.expirationDate = expirationDate;
-    }
-
-    public void setStatus(CouponStatus status) {
-        this.status = status;
-    }
-
-    public void setPublished(boolean published) {
-        this.published = published;
-    }
-
-    public void setRedeemed(boolean redeemed) {
-        this.redeemed = redeemed;
-    }
-
-    public UUID getId() {
-        return id;
-    }
-
-    public String getCode() {
-        return code;
-    }
-
-    public String getDescription() {
-        return description;
-    }
-
-    public BigDecimal getDiscountValue() {
-        return discountValue;
-    }
-
-    public LocalDateTime getExpirationDate() {
-        return expirationDate;
-    }
-
-    public CouponStatus getStatus() {
-        return status;
-    }
-
-    public boolean isPublished() {
-        return published;
-    }
-
-    public boolean isRedeemed() {
-        return redeemed;
-    }
+        @Schema(description = "Version of the coupon, incremented on every change; also sent as the ETag", example = "0")
+        long version
+) {
 }
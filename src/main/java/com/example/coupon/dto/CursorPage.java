@@ -0,0 +1,21 @@
+package com.example.coupon.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "Slice of a keyset-paginated listing")
+public record CursorPage<T>(
+        @Schema(description = "Items of this slice")
+        List<T> content,
+
+        @Schema(description = "Number of items in this slice", example = "10")
+        int size,
+
+        @Schema(description = "Whether more items follow this slice", example = "true")
+        boolean hasNext,
+
+        @Schema(description = "Opaque token to pass as 'cursor' to fetch the next slice; absent on the last slice")
+        String nextCursor
+) {
+}
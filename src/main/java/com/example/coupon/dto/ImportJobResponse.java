@@ -0,0 +1,55 @@
+package com.example.coupon.dto;
+
+import com.example.coupon.importing.ImportJob;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Schema(description = "Progress of a coupon import")
+public record ImportJobResponse(
+        @Schema(description = "Import job identifier", example = "c0a80123-45ab-6789-0abc-def123456789")
+        UUID id,
+
+        @Schema(description = "Format of the uploaded file", example = "csv")
+        String format,
+
+        @Schema(description = "Job status", example = "RUNNING")
+        ImportJob.Status status,
+
+        @Schema(description = "When the upload started", example = "2026-01-01T10:00:00")
+        LocalDateTime startedAt,
+
+        @Schema(description = "When the job finished, absent while running", example = "2026-01-01T10:05:00")
+        LocalDateTime finishedAt,
+
+        @Schema(description = "Data rows read so far", example = "150000")
+        long rowsRead,
+
+        @Schema(description = "Coupons created so far", example = "149800")
+        long created,
+
+        @Schema(description = "Rows rejected so far", example = "200")
+        long rejected,
+
+        @Schema(description = "Why the job failed, when it did", example = "Missing CSV header")
+        String failure,
+
+        @Schema(description = "First rejected rows, with their reason")
+        List<Reject> rejectSamples
+) {
+
+    @Schema(description = "A rejected import row")
+    public record Reject(
+            @Schema(description = "Line number in the uploaded file", example = "42")
+            long line,
+
+            @Schema(description = "Coupon code as read from the file", example = "AB#12")
+            String code,
+
+            @Schema(description = "Reason the row was rejected", example = "Coupon code already exists")
+            String message
+    ) {
+    }
+}
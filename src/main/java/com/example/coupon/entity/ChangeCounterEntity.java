@@ -0,0 +1,54 @@
+package com.example.coupon.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import org.springframework.data.domain.Persistable;
+
+/**
+ * One stripe of the coupons table change counter. Writers bump a random stripe, so concurrent
+ * transactions rarely wait on the same row; readers sum all stripes.
+ */
+@Entity
+@Table(name = "coupon_change_counters")
+public class ChangeCounterEntity implements Persistable<Integer> {
+
+    @Id
+    private Integer stripe;
+
+    @Column(nullable = false)
+    private long changes;
+
+    @Transient
+    private boolean isNew = true;
+
+    protected ChangeCounterEntity() {}
+
+    public ChangeCounterEntity(int stripe) {
+        this.stripe = stripe;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.isNew = false;
+    }
+
+    @Override
+    public Integer getId() {
+        return stripe;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    public long getChanges() {
+        return changes;
+    }
+}
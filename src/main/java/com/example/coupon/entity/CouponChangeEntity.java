@@ -0,0 +1,79 @@
+package com.example.coupon.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Outbox row of the coupon change feed. Rows are only ever inserted, by INSERT ... SELECT in the
+ * transaction of the change they describe, and read back in {@code seq} order.
+ */
+@Entity
+@Table(name = "coupon_changes", indexes = {
+        @Index(name = "idx_coupon_changes_changed_at", columnList = "changed_at")
+})
+public class CouponChangeEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long seq;
+
+    @Column(name = "coupon_id", nullable = false)
+    private UUID couponId;
+
+    @Column(nullable = false, length = 6)
+    private String code;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private CouponChangeType type;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private CouponStatus status;
+
+    @Column(nullable = false)
+    private long version;
+
+    @Column(nullable = false)
+    private LocalDateTime changedAt;
+
+    protected CouponChangeEntity() {}
+
+    public Long getSeq() {
+        return seq;
+    }
+
+    public UUID getCouponId() {
+        return couponId;
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    public CouponChangeType getType() {
+        return type;
+    }
+
+    public CouponStatus getStatus() {
+        return status;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public LocalDateTime getChangedAt() {
+        return changedAt;
+    }
+}
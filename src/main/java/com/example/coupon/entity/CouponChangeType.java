@@ -0,0 +1,19 @@
+package com.example.coupon.entity;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Kind of change recorded in the coupon change feed")
+public enum CouponChangeType {
+
+    @Schema(description = "Coupon was created")
+    CREATED,
+
+    @Schema(description = "Coupon was redeemed; for multi-use coupons, its redemption count was written back")
+    REDEEMED,
+
+    @Schema(description = "Coupon status changed, e.g. deactivated after expiring")
+    STATUS_CHANGED,
+
+    @Schema(description = "Coupon was soft deleted")
+    DELETED
+}
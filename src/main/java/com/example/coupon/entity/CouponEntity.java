@@ -1,5 +1,6 @@
 package com.example.coupon.entity;
 
+import com.example.coupon.id.UuidV7;
 import com.example.coupon.value.CouponCode;
 import com.example.coupon.value.DiscountValue;
 import com.example.coupon.value.ExpirationDate;
@@ -7,23 +8,62 @@ import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
-import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import jakarta.persistence.UniqueConstraint;
+import jakarta.persistence.Version;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
+import org.springframework.data.domain.Persistable;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
-@Table(name = "coupons")
-public class CouponEntity {
-
+@Table(name = "coupons", uniqueConstraints = {
+        @UniqueConstraint(name = CouponEntity.CODE_CONSTRAINT, columnNames = CouponEntity.CODE_COLUMN)
+}, indexes = {
+        // Listing and keyset scrolling: status equality, then rows already in (expiration_date, id) order.
+        @Index(name = "idx_coupons_status_expiration_id", columnList = "status, expiration_date, id"),
+        // Export by expiration range without a status filter.
+        @Index(name = "idx_coupons_expiration_date", columnList = "expiration_date")
+})
+// Statement-level updates in CouponRepository make Hibernate clear both regions once their
+// transaction commits, not before: inside it the cached copy is still the old one, so write paths
+// read back through CouponNaturalIdRepository#findCurrentByCode. A read on a lagging replica can
+// also put a stale row back after the clear, and writes through plain JDBC bypass the regions;
+// both are served until the TTL runs out.
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CouponEntity.CACHE_REGION)
+@NaturalIdCache(region = CouponEntity.CODE_CACHE_REGION)
+public class CouponEntity implements Persistable<UUID> {
+
+    /**
+     * Name of the unique constraint on {@code code}; creation relies on it instead of a pre-check.
+     */
+    public static final String CODE_CONSTRAINT = "uk_coupons_code";
+    public static final String CODE_COLUMN = "code";
+
+    /**
+     * Second-level cache regions for coupons by id and for the code to id resolution.
+     */
+    public static final String CACHE_REGION = "coupons";
+    public static final String CODE_CACHE_REGION = "coupon-codes";
+
+    // Time-ordered and assigned on creation, so persist needs neither a generator round trip nor a
+    // merge select, and inserts append to the right edge of the id indexes.
     @Id
-    @GeneratedValue
     private UUID id;
 
-    @Column(nullable = false, length = 6, unique = true)
+    @NaturalId
+    @Column(nullable = false, length = 6)
     private String code;
 
     @Column(nullable = false)
@@ -32,7 +72,7 @@ public class CouponEntity {
     @Column(nullable = false)
     private BigDecimal discountValue;
 
-    @Column(nullable = false)
+    @Column(name = "expiration_date", nullable = false)
     private LocalDateTime expirationDate;
 
     @Enumerated(EnumType.STRING)
@@ -45,14 +85,49 @@ public class CouponEntity {
     @Column(nullable = false)
     private boolean redeemed;
 
+    // 1 for single-use coupons, which keep the conditional UPDATE on redeemed. Above 1, redemptions
+    // are served from budget leased into memory (see RedemptionLedger) and counted write-behind.
+    @ColumnDefault("1")
+    @Column(nullable = false)
+    private int maxRedemptions;
+
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private long redemptionCount;
+
+    // Units handed out as leases across all instances; never exceeds maxRedemptions.
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private long redemptionsLeased;
+
+    // Bumped by every update, including the statement-level ones in CouponRepository; also the ETag.
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private long version;
+
+    @Transient
+    private boolean isNew = true;
+
     protected CouponEntity() {}
 
     public static CouponEntity create(String rawCode, String description, BigDecimal discount, LocalDateTime expiration, boolean published) {
-        CouponCode code = new CouponCode(rawCode);
+        return create(new CouponCode(rawCode), description, discount, expiration, published);
+    }
+
+    public static CouponEntity create(CouponCode code, String description, BigDecimal discount, LocalDateTime expiration, boolean published) {
+        return create(code, description, discount, expiration, published, 1);
+    }
+
+    public static CouponEntity create(CouponCode code, String description, BigDecimal discount, LocalDateTime expiration, boolean published, int maxRedemptions) {
+        if (maxRedemptions < 1) {
+            throw new com.example.coupon.exception.BusinessException("Maximum redemptions must be at least 1");
+        }
         DiscountValue discountValue = new DiscountValue(discount);
         ExpirationDate expirationDate = new ExpirationDate(expiration);
 
         CouponEntity entity = new CouponEntity();
+        entity.id = UuidV7.next();
         entity.code = code.getCode();
         entity.description = description;
         entity.discountValue = discountValue.getValue();
@@ -60,6 +135,7 @@ public class CouponEntity {
         entity.status = CouponStatus.ACTIVE;
         entity.published = published;
         entity.redeemed = false;
+        entity.maxRedemptions = maxRedemptions;
         return entity;
     }
 
@@ -70,7 +146,18 @@ public class CouponEntity {
         this.status = CouponStatus.DELETED;
     }
 
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.isNew = false;
+    }
 
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    @Override
     public UUID getId() {
         return id;
     }
@@ -103,4 +190,20 @@ public class CouponEntity {
         return redeemed;
     }
 
+    public int getMaxRedemptions() {
+        return maxRedemptions;
+    }
+
+    public boolean isMultiUse() {
+        return maxRedemptions > 1;
+    }
+
+    public long getRedemptionCount() {
+        return redemptionCount;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
 }
@@ -0,0 +1,84 @@
+package com.example.coupon.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Audit record of one redemption, loaded from the redemption journal.
+ */
+@Entity
+@Table(name = "coupon_redemptions", indexes = {
+        @Index(name = "idx_coupon_redemptions_coupon_id", columnList = "coupon_id")
+})
+public class CouponRedemptionEntity implements Persistable<UUID> {
+
+    @Id
+    private UUID id;
+
+    @Column(name = "coupon_id", nullable = false)
+    private UUID couponId;
+
+    @Column(nullable = false, length = 6)
+    private String code;
+
+    @Column(nullable = false)
+    private LocalDateTime redeemedAt;
+
+    @Column(length = 64)
+    private String orderReference;
+
+    @Transient
+    private boolean isNew = true;
+
+    protected CouponRedemptionEntity() {}
+
+    public CouponRedemptionEntity(UUID id, UUID couponId, String code, LocalDateTime redeemedAt, String orderReference) {
+        this.id = id;
+        this.couponId = couponId;
+        this.code = code;
+        this.redeemedAt = redeemedAt;
+        this.orderReference = orderReference;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.isNew = false;
+    }
+
+    @Override
+    public UUID getId() {
+        return id;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    public UUID getCouponId() {
+        return couponId;
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    public LocalDateTime getRedeemedAt() {
+        return redeemedAt;
+    }
+
+    public String getOrderReference() {
+        return orderReference;
+    }
+}
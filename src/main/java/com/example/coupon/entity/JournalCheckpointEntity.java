@@ -0,0 +1,56 @@
+package com.example.coupon.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import org.springframework.data.domain.Persistable;
+
+/**
+ * How far a journal has been applied to the database. Advanced in the same transaction as the
+ * rows it covers, so replay after a crash neither skips nor repeats events.
+ */
+@Entity
+@Table(name = "journal_checkpoints")
+public class JournalCheckpointEntity implements Persistable<String> {
+
+    @Id
+    @Column(length = 64)
+    private String name;
+
+    @Column(nullable = false)
+    private long position;
+
+    @Transient
+    private boolean isNew = true;
+
+    protected JournalCheckpointEntity() {}
+
+    public JournalCheckpointEntity(String name, long position) {
+        this.name = name;
+        this.position = position;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.isNew = false;
+    }
+
+    @Override
+    public String getId() {
+        return name;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    public long getPosition() {
+        return position;
+    }
+}
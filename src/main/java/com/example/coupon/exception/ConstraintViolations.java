@@ -0,0 +1,57 @@
+package com.example.coupon.exception;
+
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Tells which constraint a {@link DataIntegrityViolationException} came from. Drivers report the
+ * name with their own casing and decoration (H2 prints {@code "PUBLIC.UK_COUPONS_CODE_INDEX_2 ON ..."}),
+ * so the match is a case-insensitive substring.
+ */
+public final class ConstraintViolations {
+
+    private ConstraintViolations() {}
+
+    /**
+     * Also matches a unique violation reported on {@code column} under any constraint name. A schema
+     * created before the constraint got its name keeps the auto-named index ({@code ddl-auto=update}
+     * never renames it), and H2 ({@code "... ON PUBLIC.COUPONS(CODE NULLS FIRST)"}) and PostgreSQL
+     * ({@code "Key (code)=(...)"}) both name the column in the message.
+     */
+    public static boolean isViolationOf(DataIntegrityViolationException ex, String constraintName, String column) {
+        if (isViolationOf(ex, constraintName)) {
+            return true;
+        }
+        Pattern onColumn = Pattern.compile("\\(\"?" + Pattern.quote(column) + "\"?[\\s)]", Pattern.CASE_INSENSITIVE);
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            String message = cause.getMessage();
+            if (message != null && isUniqueViolationMessage(message) && onColumn.matcher(message).find()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public static boolean isViolationOf(DataIntegrityViolationException ex, String constraintName) {
+        String expected = constraintName.toLowerCase(Locale.ROOT);
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation
+                    && violation.getConstraintName() != null
+                    && violation.getConstraintName().toLowerCase(Locale.ROOT).contains(expected)) {
+                return true;
+            }
+            if (cause.getMessage() != null && cause.getMessage().toLowerCase(Locale.ROOT).contains(expected)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isUniqueViolationMessage(String message) {
+        String lower = message.toLowerCase(Locale.ROOT);
+        return lower.contains("unique") || lower.contains("duplicate key");
+    }
+}
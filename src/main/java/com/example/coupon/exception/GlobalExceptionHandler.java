@@ -1,5 +1,9 @@
 package com.example.coupon.exception;
 
+import com.example.coupon.entity.CouponEntity;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.RuntimeJsonMappingException;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -7,12 +11,34 @@ import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
+import java.util.Set;
+
 @RestControllerAdvice
 public class GlobalExceptionHandler {
 
+    private static final Set<String> CONFLICT_MESSAGES = Set.of(
+            "Coupon code already exists",
+            "Coupon already redeemed",
+            "Coupon redemption limit reached"
+    );
+
+    private static final Set<String> UNAVAILABLE_MESSAGES = Set.of(
+            "Search index is not ready yet"
+    );
+
+    private final MeterRegistry meterRegistry;
+
+    public GlobalExceptionHandler(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
     @ExceptionHandler(BusinessException.class)
     public ResponseEntity<ErrorResponse> handleBusinessException(BusinessException ex) {
-        HttpStatus status = ex.getMessage().equals("Coupon code already exists") ? HttpStatus.CONFLICT : HttpStatus.BAD_REQUEST;
+        // Business messages are a fixed set, so they are safe to use as a tag.
+        meterRegistry.counter("coupon.errors", "type", "business", "reason", ex.getMessage()).increment();
+        HttpStatus status = CONFLICT_MESSAGES.contains(ex.getMessage()) ? HttpStatus.CONFLICT
+                : UNAVAILABLE_MESSAGES.contains(ex.getMessage()) ? HttpStatus.SERVICE_UNAVAILABLE
+                : HttpStatus.BAD_REQUEST;
         return ResponseEntity
                 .status(status)
                 .body(new ErrorResponse(status.value(), ex.getMessage()));
@@ -20,6 +46,10 @@ public class GlobalExceptionHandler {
 
     @ExceptionHandler(DataIntegrityViolationException.class)
     public ResponseEntity<ErrorResponse> handleDataIntegrityViolation(DataIntegrityViolationException ex) {
+        if (ConstraintViolations.isViolationOf(ex, CouponEntity.CODE_CONSTRAINT, CouponEntity.CODE_COLUMN)) {
+            return handleBusinessException(new BusinessException("Coupon code already exists"));
+        }
+        meterRegistry.counter("coupon.errors", "type", "data_integrity", "reason", "constraint_violation").increment();
         String message = "Invalid operation: data already exists or constraint violated";
 
         return ResponseEntity
@@ -27,6 +57,17 @@ public class GlobalExceptionHandler {
                 .body(new ErrorResponse(HttpStatus.BAD_REQUEST.value(), message));
     }
 
+    @ExceptionHandler(RuntimeJsonMappingException.class)
+    public ResponseEntity<ErrorResponse> handleMalformedStream(RuntimeJsonMappingException ex) {
+        // MappingIterator wraps the JsonMappingException; its original message leaves out the location dump.
+        String detail = ex.getCause() instanceof JsonMappingException cause ? cause.getOriginalMessage() : ex.getMessage();
+        String message = "Malformed request body: " + detail;
+
+        return ResponseEntity
+                .status(HttpStatus.BAD_REQUEST)
+                .body(new ErrorResponse(HttpStatus.BAD_REQUEST.value(), message));
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ErrorResponse> handleValidationException(MethodArgumentNotValidException ex) {
         String message = ex.getBindingResult()
@@ -0,0 +1,368 @@
+package com.example.coupon.feed;
+
+import com.example.coupon.dto.CouponChangeResponse;
+import com.example.coupon.repository.CouponChangeRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Streams the {@code coupon_changes} outbox to Server-Sent Events subscribers. One poller per
+ * instance reads new rows and keeps the most recent {@code coupon.changes.buffer-size} of them in
+ * memory, so subscribers that are caught up are served without a query each; subscribers that are
+ * behind read their own batches from the table until they catch up.
+ * <p>
+ * Every subscriber runs on its own virtual thread and sends one batch at a time, blocking while
+ * the client is slow to read. A slow consumer therefore only falls further behind in the table
+ * instead of making the server buffer changes for it.
+ * <p>
+ * Sequence numbers are handed out at insert but transactions commit in any order, so a higher
+ * number can become visible before a lower one. The poller stops at a hole in the sequence until
+ * it fills, or until the row after it is older than {@code coupon.changes.gap-timeout}, after
+ * which the hole is taken to be a rolled back insert.
+ */
+@Component
+public class CouponChangeFeed {
+
+    private static final Logger log = LoggerFactory.getLogger(CouponChangeFeed.class);
+
+    private final CouponChangeRepository repository;
+    private final TransactionTemplate readTransaction;
+    private final TransactionTemplate writeTransaction;
+    private final int batchSize;
+    private final int bufferSize;
+    private final Duration gapTimeout;
+    private final long heartbeatNanos;
+    private final long streamTimeoutMillis;
+    private final Duration retention;
+    private final ExecutorService streams = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("coupon-changes-", 0).factory());
+    private final Set<Subscription> subscriptions = ConcurrentHashMap.newKeySet();
+    private final ReentrantLock windowLock = new ReentrantLock();
+    private final Condition advanced = windowLock.newCondition();
+
+    private volatile Window window = new Window(List.of(), 0, 0);
+
+    private final Counter sent;
+    private final Counter resets;
+    private final DistributionSummary lag;
+
+    public CouponChangeFeed(
+            CouponChangeRepository repository,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry registry,
+            @Value("${coupon.changes.batch-size:500}") int batchSize,
+            @Value("${coupon.changes.buffer-size:10000}") int bufferSize,
+            @Value("${coupon.changes.gap-timeout:PT5S}") Duration gapTimeout,
+            @Value("${coupon.changes.heartbeat:PT15S}") Duration heartbeat,
+            @Value("${coupon.changes.stream-timeout:PT30M}") Duration streamTimeout,
+            @Value("${coupon.changes.retention:P7D}") Duration retention
+    ) {
+        this.repository = repository;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.bufferSize = bufferSize;
+        this.gapTimeout = gapTimeout;
+        this.heartbeatNanos = heartbeat.toNanos();
+        this.streamTimeoutMillis = streamTimeout.toMillis();
+        this.retention = retention;
+
+        this.sent = Counter.builder("coupon.changes.sent")
+                .description("Changes sent to change feed subscribers")
+                .register(registry);
+        this.resets = Counter.builder("coupon.changes.resets")
+                .description("Subscribers told to rescan because their position was no longer available")
+                .register(registry);
+        this.lag = DistributionSummary.builder("coupon.changes.subscriber.lag")
+                .description("Sequence numbers a subscriber still trails the feed by after each batch it is sent")
+                .register(registry);
+        Gauge.builder("coupon.changes.subscribers", subscriptions, Set::size)
+                .description("Open change feed streams")
+                .register(registry);
+    }
+
+    /**
+     * Starts the window at the last change that can no longer be overtaken by a slower commit;
+     * the first poll picks up everything after it.
+     */
+    @PostConstruct
+    void start() {
+        LocalDateTime settled = LocalDateTime.now().minus(gapTimeout);
+        long tail = readTransaction.execute(status -> repository.findLastSeqChangedBefore(settled)).orElse(0L);
+        window = new Window(List.of(), tail, tail);
+    }
+
+    /**
+     * Opens a stream that starts after {@code since}, or with the next change when null. When
+     * {@code since} has already been pruned (or lies beyond the log) the stream starts with a
+     * {@code reset} event, telling the client to rescan before applying further changes.
+     */
+    public SseEmitter subscribe(Long since) {
+        SseEmitter emitter = new SseEmitter(streamTimeoutMillis);
+        long tail = window.tail();
+        boolean reset = since != null && !isAvailable(since, tail);
+        Subscription subscription = new Subscription(emitter, since == null || reset ? tail : since, reset);
+
+        emitter.onCompletion(() -> close(subscription));
+        emitter.onTimeout(() -> close(subscription));
+        emitter.onError(ex -> close(subscription));
+        subscriptions.add(subscription);
+        try {
+            streams.execute(() -> stream(subscription));
+        } catch (RejectedExecutionException ex) {
+            // Shutting down.
+            subscriptions.remove(subscription);
+            emitter.complete();
+        }
+        return emitter;
+    }
+
+    @Scheduled(fixedDelayString = "${coupon.changes.poll-interval:PT0.5S}")
+    public void poll() {
+        Window current = window;
+        long tail = current.tail();
+        List<CouponChangeResponse> confirmed = new ArrayList<>();
+        while (true) {
+            long after = tail;
+            List<CouponChangeResponse> rows = readTransaction.execute(status ->
+                    repository.findAfter(after, PageRequest.ofSize(batchSize)));
+            LocalDateTime settled = LocalDateTime.now().minus(gapTimeout);
+            boolean held = false;
+            for (CouponChangeResponse row : rows) {
+                if (row.seq() != tail + 1 && row.changedAt().isAfter(settled)) {
+                    // A lower sequence number may still commit.
+                    held = true;
+                    break;
+                }
+                confirmed.add(row);
+                tail = row.seq();
+            }
+            if (held || rows.size() < batchSize) {
+                break;
+            }
+        }
+        if (!confirmed.isEmpty()) {
+            publish(current, confirmed, tail);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${coupon.changes.prune-interval:PT1H}", initialDelayString = "${coupon.changes.prune-interval:PT1H}")
+    public void prune() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+        Integer deleted = writeTransaction.execute(status -> repository.deleteChangedBefore(cutoff));
+        if (deleted != null && deleted > 0) {
+            log.info("Pruned {} change feed entries older than {}", deleted, cutoff);
+        }
+    }
+
+    /**
+     * Last change handed out to subscribers on this instance.
+     */
+    public long tail() {
+        return window.tail();
+    }
+
+    /**
+     * Next confirmed changes after {@code cursor}, for in-process consumers that keep their own
+     * position. Empty once caught up; {@code next} is where to continue either way.
+     */
+    public ChangeBatch read(long cursor) {
+        Window current = window;
+        List<CouponChangeResponse> changes = changesAfter(cursor, current);
+        long next = changes.isEmpty() ? Math.max(cursor, current.tail()) : changes.get(changes.size() - 1).seq();
+        return new ChangeBatch(changes, next);
+    }
+
+    @PreDestroy
+    public void close() {
+        streams.shutdownNow();
+        subscriptions.forEach(subscription -> subscription.emitter.complete());
+    }
+
+    private void stream(Subscription subscription) {
+        try {
+            long cursor = subscription.start;
+            if (subscription.reset) {
+                resets.increment();
+                subscription.emitter.send(SseEmitter.event().name("reset").id(Long.toString(cursor)).data(cursor));
+            }
+            while (!subscription.done) {
+                Window current = window;
+                List<CouponChangeResponse> changes = changesAfter(cursor, current);
+                if (changes.isEmpty()) {
+                    if (cursor < current.tail()) {
+                        // Only holes left up to the tail, e.g. pruned or rolled back sequence numbers.
+                        cursor = current.tail();
+                        continue;
+                    }
+                    if (!awaitBeyond(cursor, subscription)) {
+                        // Keeps proxies from closing an idle stream and finds clients that went away.
+                        subscription.emitter.send(SseEmitter.event().comment("heartbeat"));
+                    }
+                    continue;
+                }
+                cursor = changes.get(changes.size() - 1).seq();
+                subscription.emitter.send(SseEmitter.event()
+                        .name("changes")
+                        .id(Long.toString(cursor))
+                        .data(changes, MediaType.APPLICATION_JSON));
+                sent.increment(changes.size());
+                lag.record(Math.max(0, current.tail() - cursor));
+            }
+        } catch (IOException | IllegalStateException ex) {
+            // The client disconnected or the stream completed underneath us.
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException ex) {
+            log.warn("Change feed stream failed", ex);
+            subscription.emitter.completeWithError(ex);
+        } finally {
+            subscriptions.remove(subscription);
+        }
+    }
+
+    private List<CouponChangeResponse> changesAfter(long cursor, Window current) {
+        if (cursor >= current.tail()) {
+            return List.of();
+        }
+        if (cursor >= current.memoryFrom()) {
+            List<CouponChangeResponse> recent = current.recent();
+            int from = firstAfter(recent, cursor);
+            return recent.subList(from, Math.min(from + batchSize, recent.size()));
+        }
+        // Behind the in-memory window: read from the table, but never past what the poller confirmed.
+        List<CouponChangeResponse> rows = readTransaction.execute(status ->
+                repository.findAfter(cursor, PageRequest.ofSize(batchSize)));
+        int end = firstAfter(rows, current.tail());
+        return rows.subList(0, end);
+    }
+
+    private boolean isAvailable(long since, long tail) {
+        return readTransaction.execute(status -> {
+            if (since > tail) {
+                return since <= repository.findLastSeq().orElse(0L);
+            }
+            // Nothing left at all means everything after since was pruned.
+            return since >= repository.findFirstSeq().orElse(tail + 1) - 1;
+        });
+    }
+
+    private void publish(Window current, List<CouponChangeResponse> confirmed, long tail) {
+        List<CouponChangeResponse> recent = new ArrayList<>(current.recent().size() + confirmed.size());
+        recent.addAll(current.recent());
+        recent.addAll(confirmed);
+        long memoryFrom = current.memoryFrom();
+        int overflow = recent.size() - bufferSize;
+        if (overflow > 0) {
+            memoryFrom = recent.get(overflow - 1).seq();
+            recent = recent.subList(overflow, recent.size());
+        }
+
+        windowLock.lock();
+        try {
+            window = new Window(List.copyOf(recent), memoryFrom, tail);
+            advanced.signalAll();
+        } finally {
+            windowLock.unlock();
+        }
+    }
+
+    /**
+     * Waits up to one heartbeat for changes after {@code cursor}; false if none arrived.
+     */
+    private boolean awaitBeyond(long cursor, Subscription subscription) throws InterruptedException {
+        windowLock.lock();
+        try {
+            long remaining = heartbeatNanos;
+            while (window.tail() <= cursor && !subscription.done) {
+                if (remaining <= 0) {
+                    return false;
+                }
+                remaining = advanced.awaitNanos(remaining);
+            }
+            return true;
+        } finally {
+            windowLock.unlock();
+        }
+    }
+
+    private void close(Subscription subscription) {
+        subscription.done = true;
+        subscriptions.remove(subscription);
+        windowLock.lock();
+        try {
+            advanced.signalAll();
+        } finally {
+            windowLock.unlock();
+        }
+    }
+
+    /**
+     * Index of the first change with a sequence number above {@code seq}.
+     */
+    private static int firstAfter(List<CouponChangeResponse> changes, long seq) {
+        int low = 0;
+        int high = changes.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (changes.get(mid).seq() <= seq) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    public record ChangeBatch(List<CouponChangeResponse> changes, long next) {
+    }
+
+    /**
+     * Changes the poller has confirmed up to {@code tail}. {@code recent} holds every confirmed
+     * change after {@code memoryFrom}.
+     */
+    private record Window(List<CouponChangeResponse> recent, long memoryFrom, long tail) {
+    }
+
+    private static final class Subscription {
+
+        final SseEmitter emitter;
+        final long start;
+        final boolean reset;
+        volatile boolean done;
+
+        Subscription(SseEmitter emitter, long start, boolean reset) {
+            this.emitter = emitter;
+            this.start = start;
+            this.reset = reset;
+        }
+    }
+}
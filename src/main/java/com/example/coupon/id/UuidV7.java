@@ -0,0 +1,52 @@
+package com.example.coupon.id;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Time-ordered UUIDs in the RFC 9562 version 7 layout: 48 bits of Unix epoch milliseconds, then a
+ * 12-bit sequence in {@code rand_a} (method 1 of the RFC) and 62 random bits. New ids land at the
+ * right edge of the primary key and of every index that carries the id, instead of scattering over
+ * the whole B-tree like random version 4 ids.
+ * <p>
+ * Ids from one JVM are strictly increasing, also across threads: the timestamp and sequence are
+ * advanced together with a single CAS. When more than 4096 ids are requested within a millisecond
+ * the sequence overflows into the timestamp, which runs slightly ahead of the clock until real
+ * time catches up. The random bits only separate ids from different instances, so
+ * {@link ThreadLocalRandom} is enough; ids are identifiers, not secrets.
+ */
+public final class UuidV7 {
+
+    private static final int SEQUENCE_BITS = 12;
+    private static final long VERSION = 0x7L << SEQUENCE_BITS;
+    private static final long VARIANT = 0x8000000000000000L;
+    private static final long RANDOM_MASK = 0x3FFFFFFFFFFFFFFFL;
+
+    // Last issued (millis << 12 | sequence).
+    private static final AtomicLong LAST_STAMP = new AtomicLong();
+
+    private UuidV7() {}
+
+    public static UUID next() {
+        long now = System.currentTimeMillis() << SEQUENCE_BITS;
+        long stamp;
+        while (true) {
+            long last = LAST_STAMP.get();
+            stamp = now > last ? now : last + 1;
+            if (LAST_STAMP.compareAndSet(last, stamp)) {
+                break;
+            }
+        }
+        long mostSigBits = (stamp >>> SEQUENCE_BITS) << 16 | VERSION | (stamp & 0xFFF);
+        long leastSigBits = VARIANT | (ThreadLocalRandom.current().nextLong() & RANDOM_MASK);
+        return new UUID(mostSigBits, leastSigBits);
+    }
+
+    /**
+     * Unix epoch milliseconds encoded in a version 7 id.
+     */
+    public static long timestamp(UUID id) {
+        return id.getMostSignificantBits() >>> 16;
+    }
+}
@@ -0,0 +1,179 @@
+package com.example.coupon.importing;
+
+import com.example.coupon.dto.BatchItemResult;
+import com.example.coupon.dto.CouponRequest;
+import com.example.coupon.dto.ImportJobResponse;
+import com.example.coupon.exception.BusinessException;
+import com.example.coupon.service.CouponBatchService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.UUID;
+
+/**
+ * Imports coupon files line by line while the upload is still arriving. Parsed rows are handed to
+ * {@link CouponBatchService} chunk by chunk, so at most one chunk of rows is held in memory and
+ * every chunk is committed on its own.
+ */
+@Service
+public class CouponImportService {
+
+    public static final String CSV = "csv";
+    public static final String NDJSON = "ndjson";
+
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_TRACKED_JOBS = 50;
+
+    private final CouponBatchService batchService;
+    private final ObjectMapper objectMapper;
+    private final Map<UUID, ImportJob> jobs = new LinkedHashMap<>();
+
+    public CouponImportService(CouponBatchService batchService, ObjectMapper objectMapper) {
+        this.batchService = batchService;
+        this.objectMapper = objectMapper;
+    }
+
+    public ImportJobResponse importCoupons(InputStream body, String format) {
+        ImportJob job = register(format);
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8), READ_BUFFER_SIZE)) {
+            ParsedRows rows;
+            if (CSV.equals(format)) {
+                rows = new ParsedRows(reader, new CsvRowParser(reader.readLine()), job, 1);
+            } else {
+                rows = new ParsedRows(reader, new NdjsonRowParser(objectMapper), job, 0);
+            }
+            batchService.createAll(rows, rows::record);
+            job.completed();
+        } catch (IOException ex) {
+            job.failed("Could not read upload: " + ex.getMessage());
+        } catch (UncheckedIOException ex) {
+            job.failed("Could not read upload: " + ex.getCause().getMessage());
+        } catch (BusinessException ex) {
+            job.failed(ex.getMessage());
+        } catch (RuntimeException ex) {
+            // Still answered as a server error, but the job must not look RUNNING forever.
+            job.failed("Import aborted by an unexpected error");
+            throw ex;
+        }
+        return job.toResponse();
+    }
+
+    public ImportJobResponse getJob(UUID id) {
+        ImportJob job;
+        synchronized (jobs) {
+            job = jobs.get(id);
+        }
+        if (job == null) {
+            throw new BusinessException("Import job not found");
+        }
+        return job.toResponse();
+    }
+
+    public List<ImportJobResponse> listJobs() {
+        synchronized (jobs) {
+            return jobs.values().stream()
+                    .map(ImportJob::toResponse)
+                    .sorted(Comparator.comparing(ImportJobResponse::startedAt).reversed())
+                    .toList();
+        }
+    }
+
+    private ImportJob register(String format) {
+        ImportJob job = new ImportJob(format);
+        synchronized (jobs) {
+            if (jobs.size() >= MAX_TRACKED_JOBS) {
+                jobs.values().stream()
+                        .filter(tracked -> tracked.getStatus() != ImportJob.Status.RUNNING)
+                        .findFirst()
+                        .ifPresent(oldest -> jobs.remove(oldest.getId()));
+            }
+            jobs.put(job.getId(), job);
+        }
+        return job;
+    }
+
+    /**
+     * Lazily reads and parses lines. Unparseable lines are reported as rejects right away; the line
+     * numbers of handed-out rows are queued until the batch service reports their result, which it
+     * does in order once per chunk.
+     */
+    private static final class ParsedRows implements Iterator<CouponRequest> {
+
+        private final BufferedReader reader;
+        private final RowParser parser;
+        private final ImportJob job;
+        private final Deque<Long> pendingLines = new ArrayDeque<>();
+        private long lineNumber;
+        private CouponRequest next;
+
+        ParsedRows(BufferedReader reader, RowParser parser, ImportJob job, long linesAlreadyRead) {
+            this.reader = reader;
+            this.parser = parser;
+            this.job = job;
+            this.lineNumber = linesAlreadyRead;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (next == null) {
+                String line = readLine();
+                if (line == null) {
+                    return false;
+                }
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                job.rowRead();
+                try {
+                    next = parser.parse(line);
+                    pendingLines.addLast(lineNumber);
+                } catch (IllegalArgumentException ex) {
+                    job.rejected(lineNumber, parser.rawCode(line), ex.getMessage());
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public CouponRequest next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            CouponRequest request = next;
+            next = null;
+            return request;
+        }
+
+        void record(BatchItemResult result) {
+            long line = pendingLines.removeFirst();
+            if (result.status() == BatchItemResult.Status.CREATED) {
+                job.created();
+            } else {
+                job.rejected(line, result.code(), result.message());
+            }
+        }
+
+        private String readLine() {
+            try {
+                return reader.readLine();
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+    }
+}
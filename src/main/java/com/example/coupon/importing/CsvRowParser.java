@@ -0,0 +1,112 @@
+package com.example.coupon.importing;
+
+import com.example.coupon.dto.CouponRequest;
+import com.example.coupon.exception.BusinessException;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Reads rows of a CSV file whose header names the columns {@code code}, {@code description},
+ * {@code discountValue}, {@code expirationDate} and, optionally, {@code published}. Fields may be
+ * double-quoted; quoted fields cannot span lines.
+ */
+class CsvRowParser implements RowParser {
+
+    private static final List<String> REQUIRED = List.of("code", "description", "discountvalue", "expirationdate");
+
+    private final Map<String, Integer> columns = new HashMap<>();
+
+    CsvRowParser(String header) {
+        if (header == null) {
+            throw new BusinessException("Missing CSV header");
+        }
+        List<String> names = split(header);
+        for (int i = 0; i < names.size(); i++) {
+            columns.put(names.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        for (String required : REQUIRED) {
+            if (!columns.containsKey(required)) {
+                throw new BusinessException("Missing CSV column: " + required);
+            }
+        }
+    }
+
+    @Override
+    public CouponRequest parse(String line) {
+        List<String> fields = split(line);
+
+        CouponRequest request = new CouponRequest();
+        request.setCode(field(fields, "code"));
+        request.setDescription(field(fields, "description"));
+        try {
+            String discount = field(fields, "discountvalue");
+            request.setDiscountValue(discount == null ? null : new BigDecimal(discount));
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("discountValue: invalid number");
+        }
+        try {
+            String expiration = field(fields, "expirationdate");
+            request.setExpirationDate(expiration == null ? null : LocalDateTime.parse(expiration));
+        } catch (DateTimeParseException ex) {
+            throw new IllegalArgumentException("expirationDate: invalid date-time");
+        }
+        request.setPublished(Boolean.parseBoolean(field(fields, "published")));
+        return request;
+    }
+
+    @Override
+    public String rawCode(String line) {
+        try {
+            return field(split(line), "code");
+        } catch (RuntimeException ex) {
+            return null;
+        }
+    }
+
+    private String field(List<String> fields, String column) {
+        Integer position = columns.get(column);
+        if (position == null || position >= fields.size()) {
+            return null;
+        }
+        String value = fields.get(position).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    static List<String> split(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        fields.add(current.toString());
+        return fields;
+    }
+}
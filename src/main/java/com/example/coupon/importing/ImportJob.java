@@ -0,0 +1,94 @@
+package com.example.coupon.importing;
+
+import com.example.coupon.dto.ImportJobResponse;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Progress of one import. Counters are updated by the importing thread and read concurrently by
+ * the status endpoint; only the first {@value #MAX_REJECT_SAMPLES} rejects are kept.
+ */
+public class ImportJob {
+
+    public enum Status {
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+
+    static final int MAX_REJECT_SAMPLES = 100;
+
+    private final UUID id = UUID.randomUUID();
+    private final String format;
+    private final LocalDateTime startedAt = LocalDateTime.now();
+    private final AtomicLong rowsRead = new AtomicLong();
+    private final AtomicLong created = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final List<ImportJobResponse.Reject> rejectSamples = new ArrayList<>();
+    private volatile Status status = Status.RUNNING;
+    private volatile LocalDateTime finishedAt;
+    private volatile String failure;
+
+    ImportJob(String format) {
+        this.format = format;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    void rowRead() {
+        rowsRead.incrementAndGet();
+    }
+
+    void created() {
+        created.incrementAndGet();
+    }
+
+    void rejected(long line, String code, String message) {
+        rejected.incrementAndGet();
+        synchronized (rejectSamples) {
+            if (rejectSamples.size() < MAX_REJECT_SAMPLES) {
+                rejectSamples.add(new ImportJobResponse.Reject(line, code, message));
+            }
+        }
+    }
+
+    void completed() {
+        finishedAt = LocalDateTime.now();
+        status = Status.COMPLETED;
+    }
+
+    void failed(String message) {
+        failure = message;
+        finishedAt = LocalDateTime.now();
+        status = Status.FAILED;
+    }
+
+    public ImportJobResponse toResponse() {
+        List<ImportJobResponse.Reject> samples;
+        synchronized (rejectSamples) {
+            samples = List.copyOf(rejectSamples);
+        }
+        return new ImportJobResponse(
+                id,
+                format,
+                status,
+                startedAt,
+                finishedAt,
+                rowsRead.get(),
+                created.get(),
+                rejected.get(),
+                failure,
+                samples
+        );
+    }
+}
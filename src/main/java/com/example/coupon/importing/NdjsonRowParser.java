@@ -0,0 +1,37 @@
+package com.example.coupon.importing;
+
+import com.example.coupon.dto.CouponRequest;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+class NdjsonRowParser implements RowParser {
+
+    private final ObjectMapper objectMapper;
+    private final ObjectReader reader;
+
+    NdjsonRowParser(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        this.reader = objectMapper.readerFor(CouponRequest.class);
+    }
+
+    @Override
+    public CouponRequest parse(String line) {
+        try {
+            return reader.readValue(line);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalArgumentException("Malformed JSON: " + ex.getOriginalMessage());
+        }
+    }
+
+    @Override
+    public String rawCode(String line) {
+        try {
+            JsonNode code = objectMapper.readTree(line).get("code");
+            return code == null ? null : code.asText();
+        } catch (JsonProcessingException ex) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.coupon.importing;
+
+import com.example.coupon.dto.CouponRequest;
+
+/**
+ * Turns one line of an uploaded file into a request. Implementations throw
+ * {@link IllegalArgumentException} with a user-facing message for rows they cannot read.
+ */
+interface RowParser {
+
+    CouponRequest parse(String line);
+
+    /**
+     * Best-effort code of a row that could not be parsed, used in reject reports.
+     */
+    String rawCode(String line);
+}
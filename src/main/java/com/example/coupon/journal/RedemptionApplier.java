@@ -0,0 +1,148 @@
+package com.example.coupon.journal;
+
+import com.example.coupon.entity.CouponRedemptionEntity;
+import com.example.coupon.entity.JournalCheckpointEntity;
+import com.example.coupon.id.UuidV7;
+import com.example.coupon.repository.CouponRedemptionRepository;
+import com.example.coupon.repository.JournalCheckpointRepository;
+import com.example.coupon.value.CouponCode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Loads journaled redemptions into {@code coupon_redemptions} in batches, off the request path.
+ * Each batch is inserted in the same transaction that advances this journal's checkpoint, so after
+ * a crash the startup replay continues exactly where the last committed batch ended.
+ */
+@Component
+public class RedemptionApplier {
+
+    private static final Logger log = LoggerFactory.getLogger(RedemptionApplier.class);
+
+    private final RedemptionJournal journal;
+    private final CouponRedemptionRepository redemptions;
+    private final JournalCheckpointRepository checkpoints;
+    private final TransactionTemplate transactionTemplate;
+    private final String checkpoint;
+    private final int batchSize;
+    private final ReentrantLock applyLock = new ReentrantLock();
+    private final Counter applied;
+
+    public RedemptionApplier(
+            RedemptionJournal journal,
+            CouponRedemptionRepository redemptions,
+            JournalCheckpointRepository checkpoints,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry registry,
+            @Value("${coupon.journal.apply-batch-size:500}") int batchSize
+    ) {
+        this.journal = journal;
+        this.redemptions = redemptions;
+        this.checkpoints = checkpoints;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.checkpoint = "redemption-journal:" + journal.id();
+        this.batchSize = batchSize;
+        this.applied = Counter.builder("coupon.journal.applied")
+                .description("Journaled redemptions loaded into coupon_redemptions")
+                .register(registry);
+    }
+
+    /**
+     * Creates the checkpoint at the oldest record on disk; a checkpoint inserted concurrently by
+     * another instance is fine.
+     */
+    @PostConstruct
+    void createCheckpoint() {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                if (!checkpoints.existsById(checkpoint)) {
+                    checkpoints.saveAndFlush(new JournalCheckpointEntity(checkpoint, journal.firstPosition()));
+                }
+            });
+        } catch (DataIntegrityViolationException ex) {
+            // Another instance created it first.
+        }
+    }
+
+    /**
+     * Crash recovery: loads everything the previous run journaled but did not apply.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void replay() {
+        long total = 0;
+        int count;
+        while ((count = apply()) > 0) {
+            total += count;
+        }
+        if (total > 0) {
+            log.info("Replayed {} journaled redemptions", total);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${coupon.journal.apply-interval:PT1S}")
+    public void applyPending() {
+        while (apply() == batchSize) {
+            // Keep going while full batches come back.
+        }
+    }
+
+    /**
+     * Applies one batch and returns its size.
+     */
+    public int apply() {
+        applyLock.lock();
+        try {
+            long from = checkpoints.findPosition(checkpoint).orElseGet(journal::firstPosition);
+            if (from > journal.durablePosition()) {
+                // The journal directory was replaced; start over from what is on disk.
+                log.warn("Journal checkpoint is ahead of the journal, restarting from its first record");
+                from = journal.firstPosition();
+            }
+
+            RedemptionJournal.Batch batch = journal.read(from, batchSize);
+            if (batch.next() == from) {
+                return 0;
+            }
+            List<CouponRedemptionEntity> rows = batch.entries().stream()
+                    .map(RedemptionApplier::toEntity)
+                    .toList();
+            transactionTemplate.executeWithoutResult(status -> {
+                redemptions.saveAll(rows);
+                checkpoints.advance(checkpoint, batch.next());
+            });
+            journal.discardBefore(batch.next());
+            applied.increment(rows.size());
+            return rows.size();
+        } finally {
+            applyLock.unlock();
+        }
+    }
+
+    private static CouponRedemptionEntity toEntity(RedemptionJournal.Entry entry) {
+        RedemptionEvent event = entry.event();
+        return new CouponRedemptionEntity(
+                UuidV7.next(),
+                event.couponId(),
+                CouponCode.fromKey(event.codeKey()),
+                LocalDateTime.ofInstant(Instant.ofEpochMilli(event.redeemedAt()), ZoneId.systemDefault()),
+                event.orderReference()
+        );
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.coupon.journal;
+
+import java.util.UUID;
+
+/**
+ * One redemption as written to the journal.
+ *
+ * @param codeKey        packed code, see {@link com.example.coupon.value.CouponCode#getKey()}
+ * @param redeemedAt     epoch milliseconds
+ * @param orderReference caller's order reference, or null; at most {@link #MAX_ORDER_REFERENCE_BYTES} in UTF-8
+ */
+public record RedemptionEvent(UUID couponId, long codeKey, long redeemedAt, String orderReference) {
+
+    public static final int MAX_ORDER_REFERENCE_BYTES = 64;
+}
@@ -0,0 +1,454 @@
+package com.example.coupon.journal;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only journal of redemptions in memory-mapped segment files. An append copies the record
+ * into the current segment under a short lock and then waits until a background thread has forced
+ * it to disk. That thread forces everything appended since its previous pass in one call, so
+ * concurrent redemptions share an fsync (group commit) instead of paying for one each.
+ * <p>
+ * Records are {@code [int length][body][int crc32c]}. On startup the last segment is scanned and
+ * cut at the first record that is incomplete or fails its checksum, which is where a crash
+ * interrupted the previous run. A position packs the segment number in the high 32 bits and the
+ * offset in the low 32, so positions grow monotonically across segments.
+ */
+@Component
+public class RedemptionJournal {
+
+    private static final Logger log = LoggerFactory.getLogger(RedemptionJournal.class);
+
+    private static final int END_OF_SEGMENT = -1;
+    private static final int HEADER = Integer.BYTES;
+    private static final int TRAILER = Integer.BYTES;
+    // couponId (2 longs), codeKey, redeemedAt, order reference length
+    private static final int FIXED_BODY = 4 * Long.BYTES + Short.BYTES;
+    private static final int MAX_BODY = FIXED_BODY + RedemptionEvent.MAX_ORDER_REFERENCE_BYTES;
+    private static final String SEGMENT_PREFIX = "redemptions-";
+    private static final String SEGMENT_SUFFIX = ".journal";
+
+    private final Path directory;
+    private final String id;
+    private final int segmentSize;
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private final Condition dirty = appendLock.newCondition();
+    private final ReentrantLock syncLock = new ReentrantLock();
+    private final Condition synced = syncLock.newCondition();
+    private final Thread syncer;
+
+    // Guarded by appendLock.
+    private int segment;
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private int writeOffset;
+    private long written;
+    private long appendsSinceSync;
+    private boolean closed;
+
+    private volatile long durable;
+    private volatile IOException failure;
+
+    private final Counter appends;
+    private final Counter appendedBytes;
+    private final Timer fsyncTimer;
+    private final DistributionSummary groupSize;
+
+    public RedemptionJournal(
+            @Value("${coupon.journal.directory:}") String directory,
+            @Value("${coupon.journal.segment-size:64MB}") DataSize segmentSize,
+            MeterRegistry registry
+    ) throws IOException {
+        if (segmentSize.toBytes() < 4096 || segmentSize.toBytes() > (1L << 30)) {
+            throw new IllegalArgumentException("coupon.journal.segment-size must be between 4KB and 1GB");
+        }
+        // No directory configured: a fresh one per run, matching the default in-memory database.
+        this.directory = directory.isBlank() ? Files.createTempDirectory("coupon-journal") : Files.createDirectories(Path.of(directory));
+        this.id = readOrCreateId();
+        this.segmentSize = (int) segmentSize.toBytes();
+        recover();
+
+        this.appends = Counter.builder("coupon.journal.appends")
+                .description("Redemption events appended to the journal")
+                .register(registry);
+        this.appendedBytes = Counter.builder("coupon.journal.appended")
+                .baseUnit("bytes")
+                .description("Bytes appended to the journal")
+                .register(registry);
+        this.fsyncTimer = Timer.builder("coupon.journal.fsync")
+                .description("Time to force appended journal records to disk")
+                .register(registry);
+        this.groupSize = DistributionSummary.builder("coupon.journal.group.size")
+                .description("Appends made durable by a single fsync")
+                .register(registry);
+
+        this.syncer = Thread.ofPlatform().name("redemption-journal-sync").daemon().start(this::syncLoop);
+    }
+
+    /**
+     * Appends the event and returns once it is on disk.
+     *
+     * @throws UncheckedIOException if the journal can no longer be forced to disk
+     */
+    public void append(RedemptionEvent event) {
+        byte[] record = encode(event);
+        long end;
+        appendLock.lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("Redemption journal is closed");
+            }
+            // Always leave room for the end-of-segment marker.
+            if (writeOffset + record.length + HEADER > segmentSize) {
+                roll();
+            }
+            buffer.put(writeOffset, record);
+            writeOffset += record.length;
+            end = position(segment, writeOffset);
+            written = end;
+            appendsSinceSync++;
+            dirty.signal();
+        } finally {
+            appendLock.unlock();
+        }
+        appends.increment();
+        appendedBytes.increment(record.length);
+        awaitDurable(end);
+    }
+
+    /**
+     * Up to {@code max} durable events starting at {@code from}, and the position to continue from.
+     */
+    public Batch read(long from, int max) {
+        long limit = durable;
+        List<Entry> entries = new ArrayList<>();
+        long next = from;
+        while (entries.size() < max && next < limit) {
+            int current = segmentOf(next);
+            boolean lastSegment = current == segmentOf(limit);
+            int end = lastSegment ? offsetOf(limit) : segmentSize;
+            int offset = offsetOf(next);
+            try (FileChannel reader = FileChannel.open(segmentPath(current), StandardOpenOption.READ)) {
+                MappedByteBuffer mapped = reader.map(FileChannel.MapMode.READ_ONLY, 0, segmentSize);
+                int length;
+                while (entries.size() < max && (length = recordLength(mapped, offset, end)) > 0) {
+                    entries.add(new Entry(position(current, offset), decode(mapped, offset)));
+                    offset += length;
+                }
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+            if (entries.size() == max || lastSegment) {
+                next = position(current, offset);
+                break;
+            }
+            // Reached the end marker of an older segment.
+            next = position(current + 1, 0);
+        }
+        return new Batch(List.copyOf(entries), next);
+    }
+
+    /**
+     * Identifies this journal across restarts, so instances sharing a database keep separate checkpoints.
+     */
+    public String id() {
+        return id;
+    }
+
+    /**
+     * Position of the oldest record still on disk.
+     */
+    public long firstPosition() {
+        try {
+            List<Integer> segments = segments();
+            return position(segments.isEmpty() ? segment : segments.get(0), 0);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    public long durablePosition() {
+        return durable;
+    }
+
+    /**
+     * Deletes segments that lie entirely before {@code position}; they have been applied.
+     */
+    public void discardBefore(long position) {
+        int keepFrom = segmentOf(position);
+        try {
+            for (int old : segments()) {
+                if (old < keepFrom && old != segment) {
+                    Files.deleteIfExists(segmentPath(old));
+                }
+            }
+        } catch (IOException ex) {
+            log.warn("Could not discard applied journal segments", ex);
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException, InterruptedException {
+        appendLock.lock();
+        try {
+            closed = true;
+            dirty.signal();
+        } finally {
+            appendLock.unlock();
+        }
+        syncer.join(TimeUnit.SECONDS.toMillis(10));
+        buffer.force();
+        channel.close();
+    }
+
+    /**
+     * Reopens the newest segment and positions the writer after its last intact record.
+     */
+    private void recover() throws IOException {
+        List<Integer> segments = segments();
+        if (segments.isEmpty()) {
+            openSegment(0);
+        } else {
+            openSegment(segments.get(segments.size() - 1));
+            int offset = 0;
+            int length;
+            while ((length = recordLength(buffer, offset, segmentSize)) > 0) {
+                offset += length;
+            }
+            if (length == END_OF_SEGMENT) {
+                channel.close();
+                openSegment(segment + 1);
+            } else {
+                // Anything past the last intact record is the tail of an interrupted write.
+                for (int i = offset; i < segmentSize; i++) {
+                    buffer.put(i, (byte) 0);
+                }
+                buffer.force();
+                writeOffset = offset;
+                if (offset > 0) {
+                    log.info("Recovered redemption journal segment {} up to offset {}", segment, offset);
+                }
+            }
+        }
+        written = position(segment, writeOffset);
+        durable = written;
+    }
+
+    private String readOrCreateId() throws IOException {
+        Path file = directory.resolve("journal.id");
+        if (Files.exists(file)) {
+            return Files.readString(file).trim();
+        }
+        String created = UUID.randomUUID().toString();
+        Files.writeString(file, created);
+        return created;
+    }
+
+    private void roll() {
+        buffer.putInt(writeOffset, END_OF_SEGMENT);
+        buffer.force();
+        markDurable(position(segment, segmentSize));
+        try {
+            channel.close();
+            openSegment(segment + 1);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        written = position(segment, 0);
+    }
+
+    private void openSegment(int number) throws IOException {
+        segment = number;
+        channel = FileChannel.open(segmentPath(number),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        writeOffset = 0;
+    }
+
+    private void syncLoop() {
+        while (true) {
+            MappedByteBuffer target;
+            int from;
+            int to;
+            long position;
+            long group;
+            appendLock.lock();
+            try {
+                while (!closed && written <= durable) {
+                    dirty.awaitUninterruptibly();
+                }
+                if (written <= durable) {
+                    return;
+                }
+                target = buffer;
+                from = segmentOf(durable) == segment ? offsetOf(durable) : 0;
+                to = writeOffset;
+                position = written;
+                group = appendsSinceSync;
+                appendsSinceSync = 0;
+            } finally {
+                appendLock.unlock();
+            }
+
+            long start = System.nanoTime();
+            try {
+                target.force(from, to - from);
+            } catch (RuntimeException ex) {
+                failure = new IOException("Could not force redemption journal to disk", ex);
+                log.error("Redemption journal sync failed; appends will fail from now on", ex);
+                markDurable(durable);
+                return;
+            }
+            fsyncTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            groupSize.record(group);
+            markDurable(position);
+        }
+    }
+
+    private void markDurable(long position) {
+        syncLock.lock();
+        try {
+            if (position > durable) {
+                durable = position;
+            }
+            synced.signalAll();
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    private void awaitDurable(long position) {
+        if (durable >= position) {
+            return;
+        }
+        syncLock.lock();
+        try {
+            while (durable < position) {
+                if (failure != null) {
+                    throw new UncheckedIOException(failure);
+                }
+                synced.awaitUninterruptibly();
+            }
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    private List<Integer> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(file -> file.getFileName().toString())
+                    .filter(name -> name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX))
+                    .map(name -> Integer.parseInt(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length())))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private Path segmentPath(int number) {
+        return directory.resolve(SEGMENT_PREFIX + "%010d".formatted(number) + SEGMENT_SUFFIX);
+    }
+
+    static long position(int segment, int offset) {
+        return ((long) segment << 32) | offset;
+    }
+
+    static int segmentOf(long position) {
+        return (int) (position >>> 32);
+    }
+
+    static int offsetOf(long position) {
+        return (int) position;
+    }
+
+    static byte[] encode(RedemptionEvent event) {
+        byte[] reference = event.orderReference() == null
+                ? new byte[0]
+                : event.orderReference().getBytes(StandardCharsets.UTF_8);
+        if (reference.length > RedemptionEvent.MAX_ORDER_REFERENCE_BYTES) {
+            throw new IllegalArgumentException("Order reference exceeds " + RedemptionEvent.MAX_ORDER_REFERENCE_BYTES + " bytes");
+        }
+        int bodyLength = FIXED_BODY + reference.length;
+        ByteBuffer record = ByteBuffer.allocate(HEADER + bodyLength + TRAILER);
+        record.putInt(bodyLength)
+                .putLong(event.couponId().getMostSignificantBits())
+                .putLong(event.couponId().getLeastSignificantBits())
+                .putLong(event.codeKey())
+                .putLong(event.redeemedAt())
+                .putShort((short) reference.length)
+                .put(reference);
+        CRC32C crc = new CRC32C();
+        crc.update(record.array(), HEADER, bodyLength);
+        record.putInt((int) crc.getValue());
+        return record.array();
+    }
+
+    /**
+     * Size of the intact record at {@code offset}; 0 where the data ends or a record is torn,
+     * {@link #END_OF_SEGMENT} at the marker written when the segment rolled.
+     */
+    static int recordLength(ByteBuffer data, int offset, int limit) {
+        if (offset + HEADER > limit) {
+            return 0;
+        }
+        int bodyLength = data.getInt(offset);
+        if (bodyLength == END_OF_SEGMENT) {
+            return END_OF_SEGMENT;
+        }
+        if (bodyLength < FIXED_BODY || bodyLength > MAX_BODY || offset + HEADER + bodyLength + TRAILER > limit) {
+            return 0;
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(data.slice(offset + HEADER, bodyLength));
+        if ((int) crc.getValue() != data.getInt(offset + HEADER + bodyLength)) {
+            return 0;
+        }
+        return HEADER + bodyLength + TRAILER;
+    }
+
+    static RedemptionEvent decode(ByteBuffer data, int offset) {
+        int at = offset + HEADER;
+        UUID couponId = new UUID(data.getLong(at), data.getLong(at + 8));
+        long codeKey = data.getLong(at + 16);
+        long redeemedAt = data.getLong(at + 24);
+        int referenceLength = data.getShort(at + 32);
+        String reference = null;
+        if (referenceLength > 0) {
+            byte[] bytes = new byte[referenceLength];
+            data.get(at + 34, bytes);
+            reference = new String(bytes, StandardCharsets.UTF_8);
+        }
+        return new RedemptionEvent(couponId, codeKey, redeemedAt, reference);
+    }
+
+    public record Entry(long position, RedemptionEvent event) {
+    }
+
+    public record Batch(List<Entry> entries, long next) {
+    }
+}
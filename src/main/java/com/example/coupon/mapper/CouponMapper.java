@@ -8,15 +8,18 @@ import org.springframework.stereotype.Component;
 public class CouponMapper {
 
     public CouponResponse toResponse(CouponEntity entity) {
-        CouponResponse response = new CouponResponse();
-        response.setId(entity.getId());
-        response.setCode(entity.getCode());
-        response.setDescription(entity.getDescription());
-        response.setDiscountValue(entity.getDiscountValue());
-        response.setExpirationDate(entity.getExpirationDate());
-        response.setStatus(entity.getStatus());
-        response.setPublished(entity.isPublished());
-        response.setRedeemed(entity.isRedeemed());
-        return response;
+        return new CouponResponse(
+                entity.getId(),
+                entity.getCode(),
+                entity.getDescription(),
+                entity.getDiscountValue(),
+                entity.getExpirationDate(),
+                entity.getStatus(),
+                entity.isPublished(),
+                entity.isRedeemed(),
+                entity.getMaxRedemptions(),
+                entity.getRedemptionCount(),
+                entity.getVersion()
+        );
     }
 }
@@ -0,0 +1,45 @@
+package com.example.coupon.pagination;
+
+import com.example.coupon.dto.CouponResponse;
+import com.example.coupon.entity.CouponEntity;
+import com.example.coupon.exception.BusinessException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Position of the last row of a page in the listing order {@code (expirationDate, id)}.
+ * Clients only ever see the encoded form, which is opaque and may change between versions.
+ */
+public record KeysetCursor(LocalDateTime expirationDate, UUID id) {
+
+    private static final char SEPARATOR = '|';
+
+    public static KeysetCursor after(CouponEntity coupon) {
+        return new KeysetCursor(coupon.getExpirationDate(), coupon.getId());
+    }
+
+    public static KeysetCursor after(CouponResponse coupon) {
+        return new KeysetCursor(coupon.expirationDate(), coupon.id());
+    }
+
+    public static KeysetCursor decode(String token) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = decoded.indexOf(SEPARATOR);
+            return new KeysetCursor(
+                    LocalDateTime.parse(decoded.substring(0, separator)),
+                    UUID.fromString(decoded.substring(separator + 1))
+            );
+        } catch (RuntimeException ex) {
+            throw new BusinessException("Invalid cursor");
+        }
+    }
+
+    public String encode() {
+        String raw = expirationDate.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,249 @@
+package com.example.coupon.redemption;
+
+import com.example.coupon.cache.CouponCodeCache;
+import com.example.coupon.entity.CouponChangeType;
+import com.example.coupon.repository.CouponRepository;
+import com.example.coupon.service.CouponChangeLog;
+import com.example.coupon.service.CouponChangeTracker;
+import com.example.coupon.value.CouponCode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Redemption budget of multi-use coupons, held in memory so that redeeming a shared code is a CAS
+ * on a {@link StripedBudget} instead of an UPDATE of one hot row. Budget is leased from the
+ * database in blocks of {@code coupon.redemption.lease-size}; the lease UPDATE refuses to go past
+ * {@code maxRedemptions}, so instances together can never oversell. Redemptions granted from a
+ * lease are written back to {@code redemptionCount} in periodic batches.
+ * <p>
+ * Units leased by an instance that dies are lost rather than resold: the coupon may end up
+ * undersold, never oversold. A clean shutdown flushes and hands unused units back.
+ */
+@Component
+public class RedemptionLedger {
+
+    private static final Logger log = LoggerFactory.getLogger(RedemptionLedger.class);
+
+    private final CouponRepository repository;
+    private final CouponChangeTracker changeTracker;
+    private final CouponChangeLog changeLog;
+    private final CouponCodeCache codeCache;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate leaseTransaction;
+    private final int stripes;
+    private final long leaseSize;
+    private final long exhaustedRecheckNanos;
+    private final ConcurrentMap<String, Lease> leases = new ConcurrentHashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    private final Counter leasedUnits;
+    private final Counter flushedUnits;
+    private final Counter flushFailures;
+
+    public RedemptionLedger(
+            CouponRepository repository,
+            CouponChangeTracker changeTracker,
+            CouponChangeLog changeLog,
+            CouponCodeCache codeCache,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry registry,
+            @Value("${coupon.redemption.lease-size:1000}") long leaseSize,
+            @Value("${coupon.redemption.exhausted-recheck:PT5S}") Duration exhaustedRecheck
+    ) {
+        this.repository = repository;
+        this.changeTracker = changeTracker;
+        this.changeLog = changeLog;
+        this.codeCache = codeCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // A lease commits on its own: rolling it back with the caller's transaction would leave
+        // units in memory that the database no longer accounts for.
+        this.leaseTransaction = new TransactionTemplate(transactionManager);
+        this.leaseTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.stripes = Runtime.getRuntime().availableProcessors();
+        this.leaseSize = leaseSize;
+        this.exhaustedRecheckNanos = exhaustedRecheck.toNanos();
+
+        this.leasedUnits = Counter.builder("coupon.redemption.leased")
+                .description("Redemption units leased from the database")
+                .register(registry);
+        this.flushedUnits = Counter.builder("coupon.redemption.flushed")
+                .description("Redemptions written back to the database")
+                .register(registry);
+        this.flushFailures = Counter.builder("coupon.redemption.flush.failures")
+                .description("Write-behind flushes that failed and will be retried")
+                .register(registry);
+        Gauge.builder("coupon.redemption.available", this, RedemptionLedger::available)
+                .description("Leased redemption units not handed out yet")
+                .register(registry);
+    }
+
+    /**
+     * Whether {@code code} is known to be a multi-use coupon, so callers can skip the single-use path.
+     */
+    public boolean isShared(String code) {
+        return leases.containsKey(code);
+    }
+
+    /**
+     * Takes one redemption of a multi-use coupon. False once its budget is used up.
+     */
+    public boolean tryRedeem(String code) {
+        Lease lease = leases.computeIfAbsent(code, key -> new Lease(new StripedBudget(stripes)));
+        return lease.budget.tryAcquire() || refillAndAcquire(code, lease);
+    }
+
+    /**
+     * Writes the redemptions granted since the last flush, one statement per code in a single
+     * transaction. On failure the counts are put back and go out with the next flush.
+     */
+    @Scheduled(fixedDelayString = "${coupon.redemption.flush-interval:PT1S}")
+    public void flush() {
+        // Serialized, so a caller that flushes returns only after an in-flight scheduled flush has committed.
+        flushLock.lock();
+        try {
+            flushPending();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void flushPending() {
+        // Sorted, so concurrent flushes from several instances lock rows in the same order.
+        Map<String, Long> pending = new TreeMap<>();
+        leases.forEach((code, lease) -> {
+            long used = lease.budget.drainUsed();
+            if (used > 0) {
+                pending.put(code, used);
+            }
+        });
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                pending.forEach(repository::recordRedemptions);
+                changeTracker.markChanged();
+                changeLog.recordCodes(CouponChangeType.REDEEMED, pending.keySet());
+            });
+        } catch (RuntimeException ex) {
+            pending.forEach((code, units) -> leases.get(code).budget.restoreUsed(units));
+            flushFailures.increment();
+            log.warn("Redemption flush of {} coupons failed, will retry", pending.size(), ex);
+            return;
+        }
+
+        pending.forEach((code, units) -> {
+            codeCache.invalidate(CouponCode.toKey(code));
+            flushedUnits.increment(units);
+        });
+    }
+
+    /**
+     * Flushes and returns the units this instance still holds, so other instances can lease them.
+     */
+    @PreDestroy
+    public void release() {
+        flush();
+        leases.forEach((code, lease) -> {
+            long unused = lease.budget.drainAvailable();
+            if (unused > 0) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> {
+                        repository.releaseRedemptions(code, unused);
+                        changeTracker.markChanged();
+                    });
+                    codeCache.invalidate(CouponCode.toKey(code));
+                } catch (RuntimeException ex) {
+                    log.warn("Could not release {} unused redemptions of {}", unused, code, ex);
+                }
+            }
+        });
+    }
+
+    private boolean refillAndAcquire(String code, Lease lease) {
+        // A lock rather than synchronized, so a virtual thread waiting on the database does not pin its carrier.
+        lease.lock.lock();
+        try {
+            while (true) {
+                // Whoever held the lock before may have refilled already.
+                if (lease.budget.tryAcquire()) {
+                    return true;
+                }
+                if (lease.exhaustedAt != 0 && System.nanoTime() - lease.exhaustedAt < exhaustedRecheckNanos) {
+                    return false;
+                }
+                long granted = leaseFromDatabase(code);
+                if (granted == 0) {
+                    // Re-checked later: another instance may hand unused units back on shutdown.
+                    lease.exhaustedAt = System.nanoTime() | 1;
+                    return false;
+                }
+                lease.exhaustedAt = 0;
+                lease.budget.add(granted);
+                leasedUnits.increment(granted);
+            }
+        } finally {
+            lease.lock.unlock();
+        }
+    }
+
+    private long leaseFromDatabase(String code) {
+        Long granted = leaseTransaction.execute(status -> {
+            while (true) {
+                long unleased = repository.findUnleasedRedemptions(code, LocalDateTime.now()).orElse(0L);
+                if (unleased <= 0) {
+                    return 0L;
+                }
+                long units = Math.min(leaseSize, unleased);
+                // Zero rows means another instance leased in between; read the remainder again.
+                if (repository.leaseRedemptions(code, units) > 0) {
+                    // The lease bumps the row version, which the listing validators must follow.
+                    changeTracker.markChanged();
+                    return units;
+                }
+            }
+        });
+        if (granted != null && granted > 0) {
+            codeCache.invalidate(CouponCode.toKey(code));
+        }
+        return granted == null ? 0 : granted;
+    }
+
+    private double available() {
+        long sum = 0;
+        for (Lease lease : leases.values()) {
+            sum += lease.budget.available();
+        }
+        return sum;
+    }
+
+    private static final class Lease {
+
+        final StripedBudget budget;
+        final ReentrantLock lock = new ReentrantLock();
+        volatile long exhaustedAt;
+
+        Lease(StripedBudget budget) {
+            this.budget = budget;
+        }
+    }
+}
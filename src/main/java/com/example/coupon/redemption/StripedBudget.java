@@ -0,0 +1,87 @@
+package com.example.coupon.redemption;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Redemption budget of one coupon split over padded stripes, so that threads redeeming the same
+ * code decrement different cache lines instead of all contending on a single counter. A thread
+ * starts at its own stripe and only moves on to the others when that one is empty; a unit is
+ * handed out at most once, so the sum of successful {@link #tryAcquire()} calls never exceeds the
+ * units {@link #add added}.
+ */
+public final class StripedBudget {
+
+    // 16 longs = 128 bytes between stripes: two cache lines, which also defeats adjacent-line prefetch.
+    private static final int PADDING = 16;
+
+    private final AtomicLongArray cells;
+    private final int mask;
+    private final LongAdder used = new LongAdder();
+
+    public StripedBudget(int stripes) {
+        int size = stripes <= 1 ? 1 : Integer.highestOneBit(stripes - 1) << 1;
+        this.cells = new AtomicLongArray(size * PADDING);
+        this.mask = size - 1;
+    }
+
+    public boolean tryAcquire() {
+        int home = home();
+        for (int i = 0; i <= mask; i++) {
+            int cell = ((home + i) & mask) * PADDING;
+            long current;
+            while ((current = cells.get(cell)) > 0) {
+                if (cells.compareAndSet(cell, current, current - 1)) {
+                    used.increment();
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Adds freshly leased units to the calling thread's stripe.
+     */
+    public void add(long units) {
+        cells.getAndAdd(home() * PADDING, units);
+    }
+
+    public long available() {
+        long sum = 0;
+        for (int i = 0; i <= mask; i++) {
+            sum += cells.get(i * PADDING);
+        }
+        return sum;
+    }
+
+    /**
+     * Takes every unit still on the stripes; concurrent acquires see empty stripes afterwards.
+     */
+    public long drainAvailable() {
+        long sum = 0;
+        for (int i = 0; i <= mask; i++) {
+            sum += cells.getAndSet(i * PADDING, 0);
+        }
+        return sum;
+    }
+
+    /**
+     * Units acquired since the last call, for the write-behind flush.
+     */
+    public long drainUsed() {
+        return used.sumThenReset();
+    }
+
+    /**
+     * Gives back units whose flush failed, so the next flush writes them again.
+     */
+    public void restoreUsed(long units) {
+        used.add(units);
+    }
+
+    private int home() {
+        long id = Thread.currentThread().threadId();
+        return (int) ((id * 0x9E3779B97F4A7C15L) >>> 40) & mask;
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.coupon.repository;
+
+import com.example.coupon.entity.ChangeCounterEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface ChangeCounterRepository extends JpaRepository<ChangeCounterEntity, Integer> {
+
+    @Modifying
+    @Query("update ChangeCounterEntity c set c.changes = c.changes + 1 where c.stripe = :stripe")
+    int increment(@Param("stripe") int stripe);
+
+    @Query("select coalesce(sum(c.changes), 0) from ChangeCounterEntity c")
+    long total();
+}
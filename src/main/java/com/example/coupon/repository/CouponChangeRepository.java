@@ -0,0 +1,83 @@
+package com.example.coupon.repository;
+
+import com.example.coupon.dto.CouponChangeResponse;
+import com.example.coupon.entity.CouponChangeEntity;
+import com.example.coupon.entity.CouponChangeType;
+import com.example.coupon.entity.CouponStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface CouponChangeRepository extends JpaRepository<CouponChangeEntity, Long> {
+
+    /**
+     * Copies the current state of the coupons into the feed with one statement, so callers must
+     * run it after the change itself. Unknown ids are skipped.
+     */
+    @Modifying
+    @Query("""
+            insert into CouponChangeEntity (couponId, code, type, status, version, changedAt)
+            select c.id, c.code, :type, c.status, c.version, :now
+              from CouponEntity c
+             where c.id in :ids
+            """)
+    int recordByIds(@Param("type") CouponChangeType type, @Param("ids") Collection<UUID> ids, @Param("now") LocalDateTime now);
+
+    /**
+     * Same as {@link #recordByIds} for the coupons that ended up in {@code status}, for set-based
+     * updates that may have matched only part of the ids.
+     */
+    @Modifying
+    @Query("""
+            insert into CouponChangeEntity (couponId, code, type, status, version, changedAt)
+            select c.id, c.code, :type, c.status, c.version, :now
+              from CouponEntity c
+             where c.id in :ids
+               and c.status = :status
+            """)
+    int recordByIdsInStatus(
+            @Param("type") CouponChangeType type,
+            @Param("ids") Collection<UUID> ids,
+            @Param("status") CouponStatus status,
+            @Param("now") LocalDateTime now
+    );
+
+    @Modifying
+    @Query("""
+            insert into CouponChangeEntity (couponId, code, type, status, version, changedAt)
+            select c.id, c.code, :type, c.status, c.version, :now
+              from CouponEntity c
+             where c.code in :codes
+            """)
+    int recordByCodes(@Param("type") CouponChangeType type, @Param("codes") Collection<String> codes, @Param("now") LocalDateTime now);
+
+    @Query("""
+            select new com.example.coupon.dto.CouponChangeResponse(
+                       ch.seq, ch.couponId, ch.code, ch.type, ch.status, ch.version, ch.changedAt)
+              from CouponChangeEntity ch
+             where ch.seq > :after
+             order by ch.seq
+            """)
+    List<CouponChangeResponse> findAfter(@Param("after") long after, Pageable limit);
+
+    @Query("select max(ch.seq) from CouponChangeEntity ch")
+    Optional<Long> findLastSeq();
+
+    @Query("select max(ch.seq) from CouponChangeEntity ch where ch.changedAt < :cutoff")
+    Optional<Long> findLastSeqChangedBefore(@Param("cutoff") LocalDateTime cutoff);
+
+    @Query("select min(ch.seq) from CouponChangeEntity ch")
+    Optional<Long> findFirstSeq();
+
+    @Modifying
+    @Query("delete from CouponChangeEntity ch where ch.changedAt < :cutoff")
+    int deleteChangedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
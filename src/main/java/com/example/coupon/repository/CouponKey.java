@@ -0,0 +1,10 @@
+package com.example.coupon.repository;
+
+import java.util.UUID;
+
+/**
+ * Identity of a coupon without hydrating the entity, for bulk statements that still need to
+ * know which rows they touched.
+ */
+public record CouponKey(UUID id, String code) {
+}
@@ -0,0 +1,20 @@
+package com.example.coupon.repository;
+
+import com.example.coupon.entity.CouponEntity;
+
+import java.util.Optional;
+
+/**
+ * Code lookups resolved through Hibernate's natural-id API, so that repeated reads of a hot code are
+ * answered by the natural-id and entity caches instead of a query.
+ */
+public interface CouponNaturalIdRepository {
+
+    Optional<CouponEntity> findByCode(String code);
+
+    /**
+     * Same lookup straight from the database, for write paths that read back a row they just
+     * updated with a statement: the cached copy is only evicted once that transaction commits.
+     */
+    Optional<CouponEntity> findCurrentByCode(String code);
+}
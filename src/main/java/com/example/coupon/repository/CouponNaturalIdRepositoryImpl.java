@@ -0,0 +1,43 @@
+package com.example.coupon.repository;
+
+import com.example.coupon.entity.CouponEntity;
+import jakarta.persistence.EntityManager;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+class CouponNaturalIdRepositoryImpl implements CouponNaturalIdRepository {
+
+    private final EntityManager entityManager;
+
+    CouponNaturalIdRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    // A derived query would always hit the database; the natural-id load checks the caches first.
+    // Transactional so the unwrapped session outlives this call when there is no outer transaction.
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<CouponEntity> findByCode(String code) {
+        return entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(CouponEntity.class)
+                .loadOptional(code);
+    }
+
+    // Joins the caller's read-write transaction, so the row comes from the primary as well.
+    @Override
+    @Transactional
+    public Optional<CouponEntity> findCurrentByCode(String code) {
+        Session session = entityManager.unwrap(Session.class);
+        CacheMode previous = session.getCacheMode();
+        // Neither reads nor fills the second-level cache: the row may hold uncommitted changes.
+        session.setCacheMode(CacheMode.IGNORE);
+        try {
+            return session.bySimpleNaturalId(CouponEntity.class).loadOptional(code);
+        } finally {
+            session.setCacheMode(previous);
+        }
+    }
+}
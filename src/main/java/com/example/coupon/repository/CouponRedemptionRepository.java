@@ -0,0 +1,11 @@
+package com.example.coupon.repository;
+
+import com.example.coupon.entity.CouponRedemptionEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.UUID;
+
+public interface CouponRedemptionRepository extends JpaRepository<CouponRedemptionEntity, UUID> {
+
+    long countByCouponId(UUID couponId);
+}
@@ -1,18 +1,276 @@
 package com.example.coupon.repository;
 
+import com.example.coupon.dto.CouponResponse;
 import com.example.coupon.entity.CouponEntity;
 import com.example.coupon.entity.CouponStatus;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Stream;
 
-public interface CouponRepository extends JpaRepository<CouponEntity, UUID> {
+public interface CouponRepository extends JpaRepository<CouponEntity, UUID>, CouponNaturalIdRepository {
+
+    /**
+     * Constructor expression for read paths: rows go straight into the immutable response, with no
+     * managed entity, persistence context entry or dirty-checking snapshot per row.
+     */
+    String RESPONSE = """
+            new com.example.coupon.dto.CouponResponse(
+                c.id, c.code, c.description, c.discountValue, c.expirationDate,
+                c.status, c.published, c.redeemed, c.maxRedemptions, c.redemptionCount, c.version)
+            """;
 
     Page<CouponEntity> findAllByStatus(CouponStatus status, Pageable pageable);
 
-    Optional<CouponEntity> findByCode(String code);
+    @Query(
+            value = "select " + RESPONSE + " from CouponEntity c where c.status = :status",
+            countQuery = "select count(c) from CouponEntity c where c.status = :status"
+    )
+    Page<CouponResponse> findResponsesByStatus(@Param("status") CouponStatus status, Pageable pageable);
+
+    @Query("select " + RESPONSE + " from CouponEntity c where c.id = :id")
+    Optional<CouponResponse> findResponseById(@Param("id") UUID id);
+
+    @Query("select " + RESPONSE + " from CouponEntity c where c.code = :code")
+    Optional<CouponResponse> findResponseByCode(@Param("code") String code);
+
+    @Query("select " + RESPONSE + " from CouponEntity c where c.code in :codes")
+    List<CouponResponse> findResponsesByCodes(@Param("codes") Collection<String> codes);
+
+    /**
+     * First slice of the keyset listing. Returning a {@link Slice} skips the count query.
+     */
+    @Query("select " + RESPONSE + """
+              from CouponEntity c
+             where c.status = :status
+             order by c.expirationDate asc, c.id asc
+            """)
+    Slice<CouponResponse> findFirstResponses(@Param("status") CouponStatus status, Pageable pageable);
+
+    /**
+     * Seeks past {@code (expirationDate, id)} instead of skipping rows with OFFSET, so every slice
+     * costs the same no matter how deep the client has scrolled.
+     */
+    @Query("select " + RESPONSE + """
+              from CouponEntity c
+             where c.status = :status
+               and (c.expirationDate > :expirationDate
+                    or (c.expirationDate = :expirationDate and c.id > :id))
+             order by c.expirationDate asc, c.id asc
+            """)
+    Slice<CouponResponse> findResponsesAfter(
+            @Param("status") CouponStatus status,
+            @Param("expirationDate") LocalDateTime expirationDate,
+            @Param("id") UUID id,
+            Pageable pageable
+    );
+
+    /**
+     * Forward-only cursor for exports of one status. Must be consumed inside a transaction and
+     * closed; the fetch size keeps the driver from materializing the whole result set at once.
+     * Both bounds are always bound (callers pass open-ended ranges as far-off dates): an optional
+     * {@code :x is null or ...} filter would keep the planner from using the index.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+            select c from CouponEntity c
+             where c.status = :status
+               and c.expirationDate >= :expiresFrom
+               and c.expirationDate < :expiresTo
+            """)
+    Stream<CouponEntity> streamForExport(
+            @Param("status") CouponStatus status,
+            @Param("expiresFrom") LocalDateTime expiresFrom,
+            @Param("expiresTo") LocalDateTime expiresTo
+    );
+
+    /**
+     * Same cursor over every status.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+            select c from CouponEntity c
+             where c.expirationDate >= :expiresFrom
+               and c.expirationDate < :expiresTo
+            """)
+    Stream<CouponEntity> streamForExport(
+            @Param("expiresFrom") LocalDateTime expiresFrom,
+            @Param("expiresTo") LocalDateTime expiresTo
+    );
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "5000"))
+    @Query("select c.code from CouponEntity c")
+    Stream<String> streamAllCodes();
+
+    /**
+     * Every coupon that is not deleted, in code order, for bulk loading the search index.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "5000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+            select new com.example.coupon.repository.CouponText(c.code, c.description)
+              from CouponEntity c
+             where c.status <> com.example.coupon.entity.CouponStatus.DELETED
+             order by c.code
+            """)
+    Stream<CouponText> streamSearchable();
+
+    @Query("""
+            select new com.example.coupon.repository.CouponText(c.code, c.description)
+              from CouponEntity c
+             where c.code in :codes
+               and c.status <> com.example.coupon.entity.CouponStatus.DELETED
+            """)
+    List<CouponText> findSearchableByCodes(@Param("codes") Collection<String> codes);
+
+    @Query("select c.version from CouponEntity c where c.id = :id")
+    Optional<Long> findVersionById(@Param("id") UUID id);
+
+    @Query("select c.code from CouponEntity c where c.code in :codes")
+    Set<String> findExistingCodes(@Param("codes") Collection<String> codes);
+
+    /**
+     * Flips the redeemed flag in a single conditional statement, so concurrent redemptions of the
+     * same code are serialized by the row lock of the UPDATE itself and exactly one caller gets 1 back.
+     */
+    @Modifying
+    @Query("""
+            update CouponEntity c
+               set c.redeemed = true, c.redemptionCount = 1, c.version = c.version + 1
+             where c.code = :code
+               and c.maxRedemptions = 1
+               and c.status = com.example.coupon.entity.CouponStatus.ACTIVE
+               and c.redeemed = false
+               and c.expirationDate > :now
+            """)
+    int redeemByCode(@Param("code") String code, @Param("now") LocalDateTime now);
+
+
+    /**
+     * Redemptions of a multi-use coupon not yet handed out as a lease to any instance.
+     */
+    @Query("""
+            select c.maxRedemptions - c.redemptionsLeased from CouponEntity c
+             where c.code = :code
+               and c.maxRedemptions > 1
+               and c.status = com.example.coupon.entity.CouponStatus.ACTIVE
+               and c.expirationDate > :now
+            """)
+    Optional<Long> findUnleasedRedemptions(@Param("code") String code, @Param("now") LocalDateTime now);
+
+    /**
+     * Carves {@code units} out of the remaining budget; matches nothing if that would exceed
+     * {@code maxRedemptions}, so the leases of all instances together can never oversell.
+     */
+    @Modifying
+    @Query("""
+            update CouponEntity c
+               set c.redemptionsLeased = c.redemptionsLeased + :units, c.version = c.version + 1
+             where c.code = :code
+               and c.redemptionsLeased + :units <= c.maxRedemptions
+            """)
+    int leaseRedemptions(@Param("code") String code, @Param("units") long units);
+
+    @Modifying
+    @Query("""
+            update CouponEntity c
+               set c.redemptionsLeased = c.redemptionsLeased - :units, c.version = c.version + 1
+             where c.code = :code
+            """)
+    int releaseRedemptions(@Param("code") String code, @Param("units") long units);
+
+    /**
+     * Write-behind of redemptions already granted from a lease.
+     */
+    @Modifying
+    @Query("""
+            update CouponEntity c
+               set c.redemptionCount = c.redemptionCount + :units,
+                   c.redeemed = case when c.redemptionCount + :units >= c.maxRedemptions then true else false end,
+                   c.version = c.version + 1
+             where c.code = :code
+            """)
+    int recordRedemptions(@Param("code") String code, @Param("units") long units);
+
+    @Query("""
+            select new com.example.coupon.repository.CouponKey(c.id, c.code) from CouponEntity c
+             where c.status = com.example.coupon.entity.CouponStatus.ACTIVE
+               and c.expirationDate <= :now
+             order by c.expirationDate asc
+            """)
+    List<CouponKey> findExpiredActive(@Param("now") LocalDateTime now, Pageable limit);
+
+    @Query("""
+            select min(c.expirationDate) from CouponEntity c
+             where c.status = com.example.coupon.entity.CouponStatus.ACTIVE
+               and c.expirationDate <= :now
+            """)
+    Optional<LocalDateTime> findOldestExpiredActive(@Param("now") LocalDateTime now);
+
+    /**
+     * Re-checks status and expiration so rows changed since they were selected are left alone.
+     */
+    @Modifying
+    @Query("""
+            update CouponEntity c
+               set c.status = com.example.coupon.entity.CouponStatus.INACTIVE, c.version = c.version + 1
+             where c.id in :ids
+               and c.status = com.example.coupon.entity.CouponStatus.ACTIVE
+               and c.expirationDate <= :now
+            """)
+    int deactivateExpired(@Param("ids") Collection<UUID> ids, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("""
+            update CouponEntity c
+               set c.status = com.example.coupon.entity.CouponStatus.DELETED, c.version = c.version + 1
+             where c.id = :id
+               and c.status <> com.example.coupon.entity.CouponStatus.DELETED
+            """)
+    int softDelete(@Param("id") UUID id);
+
+    /**
+     * Locks the coupons among {@code ids} that are not deleted yet, so a bulk delete knows exactly
+     * which rows its UPDATE is going to change.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("""
+            select c.id from CouponEntity c
+             where c.id in :ids
+               and c.status <> com.example.coupon.entity.CouponStatus.DELETED
+            """)
+    List<UUID> lockDeletable(@Param("ids") Collection<UUID> ids);
 
+    @Modifying
+    @Query("""
+            update CouponEntity c
+               set c.status = com.example.coupon.entity.CouponStatus.DELETED, c.version = c.version + 1
+             where c.id in :ids
+               and c.status <> com.example.coupon.entity.CouponStatus.DELETED
+            """)
+    int softDeleteAll(@Param("ids") Collection<UUID> ids);
 }
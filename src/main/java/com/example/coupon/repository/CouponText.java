@@ -0,0 +1,7 @@
+package com.example.coupon.repository;
+
+/**
+ * Searchable text of a coupon, read without hydrating the entity.
+ */
+public record CouponText(String code, String description) {
+}
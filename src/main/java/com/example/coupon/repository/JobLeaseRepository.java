@@ -0,0 +1,33 @@
+package com.example.coupon.repository;
+
+import com.example.coupon.entity.JobLeaseEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+
+public interface JobLeaseRepository extends JpaRepository<JobLeaseEntity, String> {
+
+    /**
+     * Takes over an expired lease or extends one already held by {@code owner}.
+     */
+    @Modifying
+    @Query("""
+            update JobLeaseEntity l
+               set l.owner = :owner, l.expiresAt = :expiresAt
+             where l.name = :name
+               and (l.owner = :owner or l.expiresAt < :now)
+            """)
+    int acquire(
+            @Param("name") String name,
+            @Param("owner") String owner,
+            @Param("now") LocalDateTime now,
+            @Param("expiresAt") LocalDateTime expiresAt
+    );
+
+    @Modifying
+    @Query("update JobLeaseEntity l set l.expiresAt = :now where l.name = :name and l.owner = :owner")
+    int release(@Param("name") String name, @Param("owner") String owner, @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,19 @@
+package com.example.coupon.repository;
+
+import com.example.coupon.entity.JournalCheckpointEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+public interface JournalCheckpointRepository extends JpaRepository<JournalCheckpointEntity, String> {
+
+    @Query("select c.position from JournalCheckpointEntity c where c.name = :name")
+    Optional<Long> findPosition(@Param("name") String name);
+
+    @Modifying
+    @Query("update JournalCheckpointEntity c set c.position = :position where c.name = :name")
+    int advance(@Param("name") String name, @Param("position") long position);
+}
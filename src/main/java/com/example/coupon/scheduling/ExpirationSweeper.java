@@ -0,0 +1,183 @@
+package com.example.coupon.scheduling;
+
+import com.example.coupon.cache.CouponCodeCache;
+import com.example.coupon.entity.CouponChangeType;
+import com.example.coupon.entity.CouponStatus;
+import com.example.coupon.repository.CouponKey;
+import com.example.coupon.repository.CouponRepository;
+import com.example.coupon.service.CouponChangeLog;
+import com.example.coupon.service.CouponChangeTracker;
+import com.example.coupon.value.CouponCode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Moves ACTIVE coupons past their expiration date to INACTIVE. Each run works in bounded chunks,
+ * one short transaction per chunk, and paces itself to {@code coupon.sweeper.max-rows-per-second}
+ * so it never holds locks for long or competes with request traffic for the pool. Only the
+ * instance holding the sweeper lease runs.
+ */
+@Component
+public class ExpirationSweeper {
+
+    static final String LEASE_NAME = "expiration-sweeper";
+
+    private static final Logger log = LoggerFactory.getLogger(ExpirationSweeper.class);
+
+    private final CouponRepository repository;
+    private final JobLeaseService leaseService;
+    private final CouponCodeCache codeCache;
+    private final CouponChangeTracker changeTracker;
+    private final CouponChangeLog changeLog;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int chunkSize;
+    private final int maxChunksPerRun;
+    private final int maxRowsPerSecond;
+    private final Duration leaseTtl;
+    private final String owner;
+
+    private final Counter sweptRows;
+    private final DistributionSummary rowsPerRun;
+    private final Timer runTimer;
+    private final AtomicLong lagSeconds = new AtomicLong();
+
+    public ExpirationSweeper(
+            CouponRepository repository,
+            JobLeaseService leaseService,
+            CouponCodeCache codeCache,
+            CouponChangeTracker changeTracker,
+            CouponChangeLog changeLog,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry registry,
+            @Value("${coupon.sweeper.enabled:true}") boolean enabled,
+            @Value("${coupon.sweeper.chunk-size:500}") int chunkSize,
+            @Value("${coupon.sweeper.max-chunks-per-run:200}") int maxChunksPerRun,
+            @Value("${coupon.sweeper.max-rows-per-second:5000}") int maxRowsPerSecond,
+            @Value("${coupon.sweeper.lease-ttl:PT5M}") Duration leaseTtl
+    ) {
+        this.repository = repository;
+        this.leaseService = leaseService;
+        this.codeCache = codeCache;
+        this.changeTracker = changeTracker;
+        this.changeLog = changeLog;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.chunkSize = chunkSize;
+        this.maxChunksPerRun = maxChunksPerRun;
+        this.maxRowsPerSecond = maxRowsPerSecond;
+        this.leaseTtl = leaseTtl;
+        this.owner = ManagementFactory.getRuntimeMXBean().getName() + "/" + UUID.randomUUID();
+
+        this.sweptRows = Counter.builder("coupon.sweeper.swept")
+                .description("Coupons moved from ACTIVE to INACTIVE after expiring")
+                .register(registry);
+        this.rowsPerRun = DistributionSummary.builder("coupon.sweeper.run.rows")
+                .description("Coupons swept per run")
+                .register(registry);
+        this.runTimer = Timer.builder("coupon.sweeper.run")
+                .description("Duration of sweeper runs")
+                .register(registry);
+        Gauge.builder("coupon.sweeper.lag.seconds", lagSeconds, AtomicLong::get)
+                .description("Age of the oldest expired coupon still ACTIVE when the last run started")
+                .register(registry);
+    }
+
+    @Scheduled(fixedDelayString = "${coupon.sweeper.interval:PT1M}", initialDelayString = "${coupon.sweeper.initial-delay:PT30S}")
+    public void scheduledSweep() {
+        if (!enabled || !leaseService.tryAcquire(LEASE_NAME, owner, leaseTtl)) {
+            return;
+        }
+        try {
+            int swept = runTimer.record(() -> sweep(true));
+            if (swept > 0) {
+                log.info("Expiration sweep moved {} coupons to INACTIVE", swept);
+            }
+        } finally {
+            leaseService.release(LEASE_NAME, owner);
+        }
+    }
+
+    /**
+     * One sweep, ignoring the lease. Returns the number of coupons deactivated.
+     */
+    public int sweep() {
+        return sweep(false);
+    }
+
+    private int sweep(boolean leased) {
+        LocalDateTime now = LocalDateTime.now();
+        lagSeconds.set(repository.findOldestExpiredActive(now)
+                .map(oldest -> Duration.between(oldest, now).toSeconds())
+                .orElse(0L));
+
+        int swept = 0;
+        for (int chunk = 0; chunk < maxChunksPerRun; chunk++) {
+            long startedAt = System.nanoTime();
+            Integer updated = transactionTemplate.execute(status -> sweepChunk(now));
+            if (updated == null || updated == 0) {
+                break;
+            }
+            swept += updated;
+            sweptRows.increment(updated);
+
+            if (leased && !leaseService.tryAcquire(LEASE_NAME, owner, leaseTtl)) {
+                // Renewal failed: the lease expired and another instance took over.
+                break;
+            }
+            pace(updated, System.nanoTime() - startedAt);
+        }
+        rowsPerRun.record(swept);
+        return swept;
+    }
+
+    private int sweepChunk(LocalDateTime now) {
+        List<CouponKey> expired = repository.findExpiredActive(now, PageRequest.ofSize(chunkSize));
+        if (expired.isEmpty()) {
+            return 0;
+        }
+        List<UUID> ids = expired.stream().map(CouponKey::id).toList();
+        int updated = repository.deactivateExpired(ids, now);
+        if (updated > 0) {
+            changeTracker.markChanged();
+            // Rows deleted or deactivated since they were selected were left alone by the UPDATE.
+            changeLog.recordAll(CouponChangeType.STATUS_CHANGED, ids, CouponStatus.INACTIVE);
+        }
+        for (CouponKey coupon : expired) {
+            codeCache.invalidate(CouponCode.toKey(coupon.code()));
+        }
+        return updated;
+    }
+
+    private void pace(int rows, long elapsedNanos) {
+        long budgetNanos = TimeUnit.SECONDS.toNanos(rows) / maxRowsPerSecond;
+        long sleepNanos = budgetNanos - elapsedNanos;
+        if (sleepNanos <= 0) {
+            return;
+        }
+        try {
+            TimeUnit.NANOSECONDS.sleep(sleepNanos);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.coupon.scheduling;
+
+import com.example.coupon.entity.JobLeaseEntity;
+import com.example.coupon.repository.JobLeaseRepository;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Single-runner guarantee for background jobs across instances sharing the database. A lease is
+ * a row; taking it is one conditional UPDATE, and the first caller ever inserts the row.
+ */
+@Service
+public class JobLeaseService {
+
+    private final JobLeaseRepository repository;
+    private final TransactionTemplate transactionTemplate;
+
+    public JobLeaseService(JobLeaseRepository repository, PlatformTransactionManager transactionManager) {
+        this.repository = repository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Acquires or renews the lease for {@code ttl}. Returns false while another owner holds it.
+     */
+    public boolean tryAcquire(String name, String owner, Duration ttl) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime expiresAt = now.plus(ttl);
+        Integer updated = transactionTemplate.execute(status -> repository.acquire(name, owner, now, expiresAt));
+        if (updated != null && updated > 0) {
+            return true;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    repository.saveAndFlush(new JobLeaseEntity(name, owner, expiresAt)));
+            return true;
+        } catch (DataIntegrityViolationException ex) {
+            // Row exists and is held by someone else, or another instance inserted it first.
+            return false;
+        }
+    }
+
+    public void release(String name, String owner) {
+        transactionTemplate.executeWithoutResult(status -> repository.release(name, owner, LocalDateTime.now()));
+    }
+}
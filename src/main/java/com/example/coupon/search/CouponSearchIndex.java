@@ -0,0 +1,197 @@
+package com.example.coupon.search;
+
+import com.example.coupon.dto.CouponChangeResponse;
+import com.example.coupon.entity.CouponChangeType;
+import com.example.coupon.exception.BusinessException;
+import com.example.coupon.feed.CouponChangeFeed;
+import com.example.coupon.repository.CouponRepository;
+import com.example.coupon.repository.CouponText;
+import com.example.coupon.value.CouponCode;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Keeps a {@link CouponTextIndex} of this instance in step with the coupons table. The index is
+ * bulk loaded once the application is ready, then follows the change feed: created coupons are
+ * added and deleted ones removed, so search results trail writes by about
+ * {@code coupon.search.refresh-interval}. Replaying a change twice is harmless, which lets the
+ * load start from the feed position taken before it reads the table.
+ */
+@Component
+public class CouponSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(CouponSearchIndex.class);
+
+    private final CouponRepository repository;
+    private final CouponChangeFeed changeFeed;
+    private final TransactionTemplate readOnlyTransaction;
+    private final int compactThreshold;
+    // Single writer for the index: the loader and the refresh never interleave.
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final Timer lookups;
+
+    private volatile CouponTextIndex index;
+    private long cursor;
+
+    public CouponSearchIndex(
+            CouponRepository repository,
+            CouponChangeFeed changeFeed,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry registry,
+            @Value("${coupon.search.compact-threshold:100000}") int compactThreshold
+    ) {
+        this.repository = repository;
+        this.changeFeed = changeFeed;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.compactThreshold = compactThreshold;
+
+        this.lookups = Timer.builder("coupon.search.lookup")
+                .description("Time spent finding matching codes in the search index")
+                .register(registry);
+        Gauge.builder("coupon.search.indexed", this, CouponSearchIndex::indexed)
+                .description("Coupons in the search index")
+                .register(registry);
+    }
+
+    /**
+     * Codes matching {@code query}, best matches first: codes starting with it when it reads as a
+     * code prefix, then coupons whose description contains all of its words.
+     */
+    public List<Long> search(String query, int limit) {
+        CouponTextIndex current = index;
+        if (current == null) {
+            throw new BusinessException("Search index is not ready yet");
+        }
+        return lookups.record(() -> {
+            Set<Long> keys = new LinkedHashSet<>();
+            // Several words are a description search; only a single word can be a code prefix.
+            if (query.strip().chars().noneMatch(Character::isWhitespace)) {
+                keys.addAll(current.byCodePrefix(query, limit));
+            }
+            if (keys.size() < limit) {
+                for (Long key : current.byTokens(query, limit + keys.size())) {
+                    if (keys.add(key) && keys.size() == limit) {
+                        break;
+                    }
+                }
+            }
+            return List.copyOf(keys);
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadInBackground() {
+        // Loading millions of rows would otherwise hold up the rest of startup.
+        Thread.ofPlatform().name("coupon-search-loader").daemon().start(() -> {
+            try {
+                rebuild();
+            } catch (RuntimeException ex) {
+                log.error("Could not build the coupon search index", ex);
+            }
+        });
+    }
+
+    /**
+     * Reads every searchable coupon into a new index and swaps it in, then catches up with the
+     * changes made while reading.
+     */
+    public void rebuild() {
+        writeLock.lock();
+        try {
+            long from = changeFeed.tail();
+            long startedAt = System.nanoTime();
+            CouponTextIndex built = readOnlyTransaction.execute(status -> {
+                CouponTextIndex.Builder builder = CouponTextIndex.builder();
+                try (Stream<CouponText> rows = repository.streamSearchable()) {
+                    rows.forEach(row -> builder.add(CouponCode.toKey(row.code()), row.description()));
+                }
+                return builder.build();
+            });
+            cursor = from;
+            index = built;
+            log.info("Search index loaded with {} coupons in {} ms",
+                    built.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+        } finally {
+            writeLock.unlock();
+        }
+        refresh();
+    }
+
+    @Scheduled(fixedDelayString = "${coupon.search.refresh-interval:PT1S}")
+    public void refresh() {
+        writeLock.lock();
+        try {
+            // Read under the lock, so the cursor always belongs to the index it is applied to.
+            CouponTextIndex current = index;
+            if (current == null) {
+                return;
+            }
+            CouponChangeFeed.ChangeBatch batch;
+            while (!(batch = changeFeed.read(cursor)).changes().isEmpty()) {
+                apply(current, batch.changes());
+                cursor = batch.next();
+            }
+            cursor = batch.next();
+            if (current.pendingChanges() >= compactThreshold) {
+                current.compact();
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void apply(CouponTextIndex current, List<CouponChangeResponse> changes) {
+        List<String> created = changes.stream()
+                .filter(change -> change.type() == CouponChangeType.CREATED)
+                .map(CouponChangeResponse::code)
+                .distinct()
+                // Replayed changes of coupons the load already read need no lookup.
+                .filter(code -> !current.contains(CouponCode.toKey(code)))
+                .toList();
+        Map<String, String> descriptions = new HashMap<>();
+        if (!created.isEmpty()) {
+            readOnlyTransaction.executeWithoutResult(status -> repository.findSearchableByCodes(created)
+                    .forEach(row -> descriptions.put(row.code(), row.description())));
+        }
+
+        for (CouponChangeResponse change : changes) {
+            switch (change.type()) {
+                // Missing means deleted again since; its DELETED change follows in this or a later batch.
+                case CREATED -> {
+                    if (descriptions.containsKey(change.code())) {
+                        current.add(CouponCode.toKey(change.code()), descriptions.get(change.code()));
+                    }
+                }
+                case DELETED -> current.remove(CouponCode.toKey(change.code()));
+                // Codes and descriptions never change after creation.
+                default -> {
+                }
+            }
+        }
+    }
+
+    private double indexed() {
+        CouponTextIndex current = index;
+        return current == null ? 0 : current.size();
+    }
+}
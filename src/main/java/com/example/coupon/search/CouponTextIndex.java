@@ -0,0 +1,398 @@
+package com.example.coupon.search;
+
+import com.example.coupon.value.CouponCode;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.regex.Pattern;
+
+/**
+ * Search structures over coupon codes and description tokens, sized for millions of coupons.
+ * A code key is a base-36 number, so every code sharing a prefix falls in one contiguous key range:
+ * codes are kept in a sorted int array and a prefix search is a binary search followed by a scan.
+ * Descriptions feed an inverted index from token to the sorted array of codes containing it.
+ * <p>
+ * Keys are stored as ints shifted down by 2^31 (36^6 is just above {@code Integer.MAX_VALUE}),
+ * which halves the memory of longs and keeps their order. Arrays never change once built; adds and
+ * removes land in small concurrent delta sets merged in at query time, until {@link #compact()}
+ * folds them into new arrays. Any number of threads may query, but mutations and compaction must
+ * come from a single writer.
+ */
+public final class CouponTextIndex {
+
+    static final int MIN_TOKEN_LENGTH = 2;
+    static final int MAX_TOKEN_LENGTH = 32;
+
+    private static final long OFFSET = 1L << 31;
+    private static final int[] EMPTY = new int[0];
+    private static final NavigableSet<Integer> NONE = Collections.emptyNavigableSet();
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+
+    private volatile State state;
+    private volatile int size;
+    private volatile int pendingChanges;
+
+    private CouponTextIndex(State state) {
+        this.state = state;
+        this.size = state.codes.length;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Coupons currently searchable.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Adds and removes not folded into the arrays yet.
+     */
+    public int pendingChanges() {
+        return pendingChanges;
+    }
+
+    public boolean contains(long codeKey) {
+        return contains(state, toInt(codeKey));
+    }
+
+    /**
+     * Makes a coupon searchable. Adding a code that is already there does nothing.
+     */
+    public void add(long codeKey, String description) {
+        State current = state;
+        int code = toInt(codeKey);
+        if (contains(current, code)) {
+            return;
+        }
+        for (String token : tokenize(description)) {
+            current.addedPostings.computeIfAbsent(token, key -> new ConcurrentSkipListSet<>()).add(code);
+        }
+        current.addedCodes.add(code);
+        current.removed.remove(code);
+        size++;
+        pendingChanges++;
+    }
+
+    public void remove(long codeKey) {
+        State current = state;
+        int code = toInt(codeKey);
+        if (!contains(current, code)) {
+            return;
+        }
+        current.removed.add(code);
+        size--;
+        pendingChanges++;
+    }
+
+    /**
+     * Rebuilds the arrays with the pending adds and removes folded in. Queries keep running against
+     * the previous arrays until the new ones are swapped in.
+     */
+    public void compact() {
+        State current = state;
+        Set<String> tokens = new HashSet<>(current.postings.keySet());
+        tokens.addAll(current.addedPostings.keySet());
+
+        Map<String, int[]> postings = HashMap.newHashMap(tokens.size());
+        for (String token : tokens) {
+            int[] base = current.postings.getOrDefault(token, EMPTY);
+            NavigableSet<Integer> added = current.addedPostings.getOrDefault(token, NONE);
+            // Without removes, lists nobody added to are still exact and are shared as they are.
+            int[] merged = added.isEmpty() && current.removed.isEmpty() ? base : merge(base, added, current.removed);
+            if (merged.length > 0) {
+                postings.put(token, merged);
+            }
+        }
+        state = new State(merge(current.codes, current.addedCodes, current.removed), postings);
+        pendingChanges = 0;
+    }
+
+    /**
+     * Codes starting with {@code prefix}, in code order. The prefix is sanitized like a code; one
+     * that does not reduce to 1 to {@value CouponCode#LENGTH} alphanumeric characters matches nothing.
+     */
+    public List<Long> byCodePrefix(String prefix, int limit) {
+        String sanitized = codePrefix(prefix);
+        if (sanitized == null) {
+            return List.of();
+        }
+        long span = 1;
+        for (int i = sanitized.length(); i < CouponCode.LENGTH; i++) {
+            span *= 36;
+        }
+        long low = CouponCode.toKey(sanitized + "0".repeat(CouponCode.LENGTH - sanitized.length()));
+        int from = toInt(low);
+        int to = toInt(low + span);
+
+        State current = state;
+        List<Long> found = new ArrayList<>(Math.min(limit, 64));
+        Iterator<Integer> added = current.addedCodes.tailSet(from).iterator();
+        MergedCursor cursor = new MergedCursor(current.codes, lowerBound(current.codes, from), added);
+        while (found.size() < limit && cursor.hasNext()) {
+            int code = cursor.next();
+            if (code >= to) {
+                break;
+            }
+            if (!current.removed.contains(code)) {
+                found.add(toKey(code));
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Codes whose description contains every token of {@code query}, in code order. Drives the scan
+     * from the shortest posting list and probes the others by binary search, so the cost follows the
+     * rarest token rather than the most common one.
+     */
+    public List<Long> byTokens(String query, int limit) {
+        List<String> tokens = tokenize(query);
+        if (tokens.isEmpty()) {
+            return List.of();
+        }
+        State current = state;
+        List<Postings> lists = new ArrayList<>(tokens.size());
+        for (String token : tokens) {
+            Postings postings = new Postings(
+                    current.postings.getOrDefault(token, EMPTY),
+                    current.addedPostings.getOrDefault(token, NONE)
+            );
+            if (postings.base.length == 0 && postings.added.isEmpty()) {
+                return List.of();
+            }
+            lists.add(postings);
+        }
+        lists.sort(Comparator.comparingInt(postings -> postings.base.length));
+
+        Postings driver = lists.get(0);
+        List<Postings> probes = lists.subList(1, lists.size());
+        List<Long> found = new ArrayList<>(Math.min(limit, 64));
+        MergedCursor cursor = new MergedCursor(driver.base, 0, driver.added.iterator());
+        candidates:
+        while (found.size() < limit && cursor.hasNext()) {
+            int code = cursor.next();
+            if (current.removed.contains(code)) {
+                continue;
+            }
+            for (Postings probe : probes) {
+                if (!probe.contains(code)) {
+                    continue candidates;
+                }
+            }
+            found.add(toKey(code));
+        }
+        return found;
+    }
+
+    /**
+     * Distinct search tokens of a text: accents stripped, lower-cased, split on anything that is
+     * not a letter or digit, and only tokens of {@value #MIN_TOKEN_LENGTH} to
+     * {@value #MAX_TOKEN_LENGTH} characters kept.
+     */
+    public static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String folded = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        Set<String> tokens = new LinkedHashSet<>();
+        int start = -1;
+        for (int i = 0, length = folded.length(); i <= length; i++) {
+            boolean wordChar = i < length && Character.isLetterOrDigit(folded.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                int tokenLength = i - start;
+                if (tokenLength >= MIN_TOKEN_LENGTH && tokenLength <= MAX_TOKEN_LENGTH) {
+                    tokens.add(folded.substring(start, i));
+                }
+                start = -1;
+            }
+        }
+        return List.copyOf(tokens);
+    }
+
+    /**
+     * Upper-cased alphanumeric characters of {@code raw} if they can start a code, otherwise null.
+     */
+    public static String codePrefix(String raw) {
+        if (raw == null) {
+            return null;
+        }
+        StringBuilder prefix = new StringBuilder(CouponCode.LENGTH);
+        for (int i = 0, length = raw.length(); i < length; i++) {
+            char c = raw.charAt(i);
+            if ((c >= '0' && c <= '9') || (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z')) {
+                if (prefix.length() == CouponCode.LENGTH) {
+                    return null;
+                }
+                prefix.append(Character.toUpperCase(c));
+            }
+        }
+        return prefix.isEmpty() ? null : prefix.toString();
+    }
+
+    private static boolean contains(State state, int code) {
+        return !state.removed.contains(code)
+                && (Arrays.binarySearch(state.codes, code) >= 0 || state.addedCodes.contains(code));
+    }
+
+    private static int[] merge(int[] base, NavigableSet<Integer> added, Set<Integer> removed) {
+        int[] merged = new int[base.length + added.size()];
+        int count = 0;
+        MergedCursor cursor = new MergedCursor(base, 0, added.iterator());
+        while (cursor.hasNext()) {
+            int code = cursor.next();
+            if (!removed.contains(code)) {
+                merged[count++] = code;
+            }
+        }
+        return count == merged.length ? merged : Arrays.copyOf(merged, count);
+    }
+
+    private static int lowerBound(int[] sorted, int value) {
+        int position = Arrays.binarySearch(sorted, value);
+        return position >= 0 ? position : -position - 1;
+    }
+
+    private static int toInt(long codeKey) {
+        return (int) (codeKey - OFFSET);
+    }
+
+    private static long toKey(int code) {
+        return code + OFFSET;
+    }
+
+    private record State(
+            int[] codes,
+            Map<String, int[]> postings,
+            NavigableSet<Integer> addedCodes,
+            Map<String, NavigableSet<Integer>> addedPostings,
+            Set<Integer> removed
+    ) {
+
+        State(int[] codes, Map<String, int[]> postings) {
+            this(codes, postings, new ConcurrentSkipListSet<>(), new ConcurrentHashMap<>(), ConcurrentHashMap.newKeySet());
+        }
+    }
+
+    private record Postings(int[] base, NavigableSet<Integer> added) {
+
+        boolean contains(int code) {
+            return Arrays.binarySearch(base, code) >= 0 || added.contains(code);
+        }
+    }
+
+    /**
+     * Ascending walk over a sorted array and a sorted delta at once, yielding a code present in both
+     * only once.
+     */
+    private static final class MergedCursor {
+
+        private final int[] base;
+        private int position;
+        private final Iterator<Integer> added;
+        private int nextAdded;
+        private boolean hasAdded;
+
+        MergedCursor(int[] base, int position, Iterator<Integer> added) {
+            this.base = base;
+            this.position = position;
+            this.added = added;
+            advanceAdded();
+        }
+
+        boolean hasNext() {
+            return position < base.length || hasAdded;
+        }
+
+        int next() {
+            if (!hasAdded || (position < base.length && base[position] < nextAdded)) {
+                return base[position++];
+            }
+            int code = nextAdded;
+            if (position < base.length && base[position] == code) {
+                position++;
+            }
+            advanceAdded();
+            return code;
+        }
+
+        private void advanceAdded() {
+            hasAdded = added.hasNext();
+            if (hasAdded) {
+                nextAdded = added.next();
+            }
+        }
+    }
+
+    /**
+     * Bulk load of the initial index. Codes must come in ascending order, which is the order of the
+     * unique index on {@code code}, so no sort is needed.
+     */
+    public static final class Builder {
+
+        private int[] codes = new int[1024];
+        private int count;
+        private final Map<String, IntList> postings = new HashMap<>();
+
+        private Builder() {
+        }
+
+        public Builder add(long codeKey, String description) {
+            int code = toInt(codeKey);
+            if (count > 0 && code <= codes[count - 1]) {
+                throw new IllegalArgumentException("Codes must be added in ascending order");
+            }
+            if (count == codes.length) {
+                codes = Arrays.copyOf(codes, count * 2);
+            }
+            codes[count++] = code;
+            for (String token : tokenize(description)) {
+                postings.computeIfAbsent(token, key -> new IntList()).add(code);
+            }
+            return this;
+        }
+
+        public CouponTextIndex build() {
+            Map<String, int[]> frozen = HashMap.newHashMap(postings.size());
+            postings.forEach((token, list) -> frozen.put(token, list.toArray()));
+            return new CouponTextIndex(new State(Arrays.copyOf(codes, count), frozen));
+        }
+    }
+
+    private static final class IntList {
+
+        private int[] values = new int[4];
+        private int count;
+
+        void add(int value) {
+            if (count == values.length) {
+                values = Arrays.copyOf(values, count * 2);
+            }
+            values[count++] = value;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, count);
+        }
+    }
+}
@@ -0,0 +1,245 @@
+package com.example.coupon.service;
+
+import com.example.coupon.cache.CouponCodeCache;
+import com.example.coupon.cache.CouponCodeFilter;
+import com.example.coupon.dto.BatchCreateResponse;
+import com.example.coupon.dto.BatchItemResult;
+import com.example.coupon.dto.BulkDeleteResponse;
+import com.example.coupon.dto.CouponRequest;
+import com.example.coupon.entity.CouponChangeType;
+import com.example.coupon.entity.CouponEntity;
+import com.example.coupon.exception.BusinessException;
+import com.example.coupon.repository.CouponRepository;
+import com.example.coupon.value.CouponCode;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Creates coupons in chunks: each chunk is validated in memory, checked for duplicates with one
+ * set-based query and inserted in its own transaction, so Hibernate can send it as JDBC batches.
+ * Chunks are committed independently; a chunk that was already committed stays committed when a
+ * later one fails. Bulk deletes use the same chunking with one set-based UPDATE per chunk.
+ */
+@Service
+public class CouponBatchService {
+
+    private final CouponRepository repository;
+    private final CouponCodeFilter codeFilter;
+    private final CouponCodeCache codeCache;
+    private final CouponChangeTracker changeTracker;
+    private final CouponChangeLog changeLog;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+
+    public CouponBatchService(
+            CouponRepository repository,
+            CouponCodeFilter codeFilter,
+            CouponCodeCache codeCache,
+            CouponChangeTracker changeTracker,
+            CouponChangeLog changeLog,
+            Validator validator,
+            PlatformTransactionManager transactionManager,
+            @Value("${coupon.batch.chunk-size:1000}") int chunkSize
+    ) {
+        this.repository = repository;
+        this.codeFilter = codeFilter;
+        this.codeCache = codeCache;
+        this.changeTracker = changeTracker;
+        this.changeLog = changeLog;
+        this.validator = validator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+    }
+
+    public BatchCreateResponse createAll(Iterator<CouponRequest> requests) {
+        List<BatchItemResult> results = new ArrayList<>();
+        createAll(requests, results::add);
+        return BatchCreateResponse.of(results);
+    }
+
+    /**
+     * Streams the results to {@code sink} chunk by chunk, in request order, so callers that only
+     * need counters never hold more than one chunk in memory.
+     */
+    public void createAll(Iterator<CouponRequest> requests, Consumer<BatchItemResult> sink) {
+        List<CouponRequest> chunk = new ArrayList<>(chunkSize);
+        int chunkStart = 0;
+        while (requests.hasNext()) {
+            chunk.add(requests.next());
+            if (chunk.size() == chunkSize) {
+                createChunk(chunk, chunkStart, sink);
+                chunkStart += chunk.size();
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            createChunk(chunk, chunkStart, sink);
+        }
+    }
+
+    /**
+     * Soft-deletes the given coupons with one set-based UPDATE per chunk, each chunk in its own
+     * transaction. Unknown and already deleted ids are counted as skipped.
+     */
+    public BulkDeleteResponse deleteAll(Collection<UUID> ids) {
+        List<UUID> distinct = ids.stream().filter(Objects::nonNull).distinct().toList();
+        int deleted = 0;
+        for (int from = 0; from < distinct.size(); from += chunkSize) {
+            List<UUID> chunk = distinct.subList(from, Math.min(from + chunkSize, distinct.size()));
+            Integer rows = transactionTemplate.execute(status -> {
+                // Locked first, so the feed gets entries for exactly the rows this UPDATE changes.
+                List<UUID> deletable = repository.lockDeletable(chunk);
+                if (deletable.isEmpty()) {
+                    return 0;
+                }
+                int updated = repository.softDeleteAll(deletable);
+                changeTracker.markChanged();
+                changeLog.recordAll(CouponChangeType.DELETED, deletable);
+                codeCache.invalidateAllById(deletable);
+                return updated;
+            });
+            deleted += rows;
+        }
+        return new BulkDeleteResponse(distinct.size(), deleted, distinct.size() - deleted);
+    }
+
+    private void createChunk(List<CouponRequest> chunk, int chunkStart, Consumer<BatchItemResult> sink) {
+        BatchItemResult[] results = new BatchItemResult[chunk.size()];
+        Map<Long, Integer> positionsByKey = new HashMap<>();
+        List<CouponEntity> candidates = new ArrayList<>(chunk.size());
+
+        for (int i = 0; i < chunk.size(); i++) {
+            CouponRequest request = chunk.get(i);
+            int index = chunkStart + i;
+
+            String violation = firstViolation(request);
+            if (violation != null) {
+                results[i] = BatchItemResult.rejected(index, request.getCode(), violation);
+                continue;
+            }
+
+            CouponEntity coupon;
+            try {
+                coupon = CouponEntity.create(
+                        new CouponCode(request.getCode()),
+                        request.getDescription(),
+                        request.getDiscountValue(),
+                        request.getExpirationDate(),
+                        request.isPublished(),
+                        request.getMaxRedemptions()
+                );
+            } catch (BusinessException ex) {
+                results[i] = BatchItemResult.rejected(index, request.getCode(), ex.getMessage());
+                continue;
+            }
+
+            if (positionsByKey.putIfAbsent(CouponCode.toKey(coupon.getCode()), i) != null) {
+                results[i] = BatchItemResult.rejected(index, coupon.getCode(), "Duplicate coupon code in batch");
+                continue;
+            }
+            candidates.add(coupon);
+        }
+
+        if (!candidates.isEmpty()) {
+            List<String> maybeExisting = candidates.stream()
+                    .map(CouponEntity::getCode)
+                    .filter(code -> codeFilter.mightContain(CouponCode.toKey(code)))
+                    .toList();
+            Set<String> existing = maybeExisting.isEmpty() ? Set.of() : repository.findExistingCodes(maybeExisting);
+            for (String code : maybeExisting) {
+                codeFilter.recordLookup(existing.contains(code));
+            }
+            List<CouponEntity> fresh = new ArrayList<>(candidates.size());
+            for (CouponEntity coupon : candidates) {
+                if (existing.contains(coupon.getCode())) {
+                    int position = positionsByKey.get(CouponCode.toKey(coupon.getCode()));
+                    results[position] = BatchItemResult.rejected(chunkStart + position, coupon.getCode(), "Coupon code already exists");
+                } else {
+                    fresh.add(coupon);
+                }
+            }
+            insert(fresh, positionsByKey, chunkStart, results);
+        }
+
+        for (BatchItemResult result : results) {
+            sink.accept(result);
+        }
+    }
+
+    private void insert(List<CouponEntity> coupons, Map<Long, Integer> positionsByKey, int chunkStart, BatchItemResult[] results) {
+        if (coupons.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                repository.saveAll(coupons);
+                repository.flush();
+                changeTracker.markChanged();
+                changeLog.recordAll(CouponChangeType.CREATED, coupons.stream().map(CouponEntity::getId).toList());
+            });
+            for (CouponEntity coupon : coupons) {
+                long key = CouponCode.toKey(coupon.getCode());
+                codeFilter.put(key);
+                int position = positionsByKey.get(key);
+                results[position] = BatchItemResult.created(chunkStart + position, coupon.getCode(), coupon.getId());
+            }
+        } catch (DataIntegrityViolationException ex) {
+            // A concurrent writer took one of the codes after the existence check: retry one by one
+            // so only the conflicting items are rejected.
+            for (CouponEntity coupon : coupons) {
+                insertOne(coupon, positionsByKey, chunkStart, results);
+            }
+        }
+    }
+
+    private void insertOne(CouponEntity coupon, Map<Long, Integer> positionsByKey, int chunkStart, BatchItemResult[] results) {
+        int position = positionsByKey.get(CouponCode.toKey(coupon.getCode()));
+        try {
+            // The rolled back instance is no longer new to Spring Data, so insert a fresh copy.
+            CouponEntity saved = transactionTemplate.execute(status -> {
+                CouponEntity copy = repository.saveAndFlush(CouponEntity.create(
+                        new CouponCode(coupon.getCode()),
+                        coupon.getDescription(),
+                        coupon.getDiscountValue(),
+                        coupon.getExpirationDate(),
+                        coupon.isPublished(),
+                        coupon.getMaxRedemptions()
+                ));
+                changeTracker.markChanged();
+                changeLog.record(CouponChangeType.CREATED, copy.getId());
+                return copy;
+            });
+            codeFilter.put(CouponCode.toKey(saved.getCode()));
+            results[position] = BatchItemResult.created(chunkStart + position, saved.getCode(), saved.getId());
+        } catch (DataIntegrityViolationException ex) {
+            results[position] = BatchItemResult.rejected(chunkStart + position, coupon.getCode(), "Coupon code already exists");
+        } catch (BusinessException ex) {
+            results[position] = BatchItemResult.rejected(chunkStart + position, coupon.getCode(), ex.getMessage());
+        }
+    }
+
+    private String firstViolation(CouponRequest request) {
+        Set<ConstraintViolation<CouponRequest>> violations = validator.validate(request);
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .findFirst()
+                .orElse(null);
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.coupon.service;
+
+import com.example.coupon.entity.CouponChangeType;
+import com.example.coupon.entity.CouponStatus;
+import com.example.coupon.repository.CouponChangeRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Transactional outbox behind the change feed. Writers record a change in the transaction that
+ * makes it, after the statement that changed the coupons, so the feed entry commits or rolls back
+ * together with the change and carries the resulting status and version.
+ */
+@Component
+public class CouponChangeLog {
+
+    private final CouponChangeRepository repository;
+
+    public CouponChangeLog(CouponChangeRepository repository) {
+        this.repository = repository;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(CouponChangeType type, UUID id) {
+        recordAll(type, List.of(id));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordAll(CouponChangeType type, Collection<UUID> ids) {
+        repository.recordByIds(type, ids, LocalDateTime.now());
+    }
+
+    /**
+     * Records only the coupons among {@code ids} now in {@code status}, i.e. the ones a conditional
+     * update moving them there actually changed.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordAll(CouponChangeType type, Collection<UUID> ids, CouponStatus status) {
+        repository.recordByIdsInStatus(type, ids, status, LocalDateTime.now());
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordCodes(CouponChangeType type, Collection<String> codes) {
+        repository.recordByCodes(type, codes, LocalDateTime.now());
+    }
+}
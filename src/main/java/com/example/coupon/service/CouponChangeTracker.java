@@ -0,0 +1,61 @@
+package com.example.coupon.service;
+
+import com.example.coupon.entity.ChangeCounterEntity;
+import com.example.coupon.repository.ChangeCounterRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Database-wide change counter of the coupons table, used as the validator of listing ETags.
+ * Every write path bumps it in its own transaction, so the bump commits or rolls back together
+ * with the change, and instances sharing the database agree on the value.
+ */
+@Component
+public class CouponChangeTracker {
+
+    static final int STRIPES = 16;
+
+    private final ChangeCounterRepository repository;
+    private final TransactionTemplate transactionTemplate;
+
+    public CouponChangeTracker(ChangeCounterRepository repository, PlatformTransactionManager transactionManager) {
+        this.repository = repository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Creates missing stripes; a stripe inserted concurrently by another instance is fine.
+     */
+    @PostConstruct
+    void createStripes() {
+        for (int stripe = 0; stripe < STRIPES; stripe++) {
+            int id = stripe;
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    if (!repository.existsById(id)) {
+                        repository.saveAndFlush(new ChangeCounterEntity(id));
+                    }
+                });
+            } catch (DataIntegrityViolationException ex) {
+                // Another instance created it first.
+            }
+        }
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void markChanged() {
+        repository.increment(ThreadLocalRandom.current().nextInt(STRIPES));
+    }
+
+    @Transactional(readOnly = true)
+    public long currentVersion() {
+        return repository.total();
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.coupon.service;
+
+import com.example.coupon.entity.CouponEntity;
+import com.example.coupon.entity.CouponStatus;
+import com.example.coupon.mapper.CouponMapper;
+import com.example.coupon.repository.CouponRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Writes coupons as NDJSON straight from a forward-only cursor. The persistence context is
+ * cleared every {@code coupon.export.clear-interval} rows, so memory stays flat regardless of
+ * how many rows match.
+ */
+@Service
+public class CouponExportService {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    // Stand-ins for an open range, so the export query keeps a single index-friendly shape.
+    private static final LocalDateTime EARLIEST = LocalDateTime.of(1, 1, 1, 0, 0);
+    private static final LocalDateTime LATEST = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+
+    private final CouponRepository repository;
+    private final CouponMapper mapper;
+    private final EntityManager entityManager;
+    private final ObjectWriter writer;
+    private final TransactionTemplate transactionTemplate;
+    private final int clearInterval;
+
+    public CouponExportService(
+            CouponRepository repository,
+            CouponMapper mapper,
+            EntityManager entityManager,
+            ObjectMapper objectMapper,
+            PlatformTransactionManager transactionManager,
+            @Value("${coupon.export.clear-interval:1000}") int clearInterval
+    ) {
+        this.repository = repository;
+        this.mapper = mapper;
+        this.entityManager = entityManager;
+        this.writer = objectMapper.writer();
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.clearInterval = clearInterval;
+    }
+
+    /**
+     * @return number of coupons written
+     */
+    public long export(CouponStatus status, LocalDateTime expiresFrom, LocalDateTime expiresTo, OutputStream target) {
+        Long written = transactionTemplate.execute(tx -> {
+            OutputStream out = new BufferedOutputStream(target, BUFFER_SIZE);
+            long count = 0;
+            LocalDateTime from = expiresFrom != null ? expiresFrom : EARLIEST;
+            LocalDateTime to = expiresTo != null ? expiresTo : LATEST;
+            try (Stream<CouponEntity> coupons = status != null
+                    ? repository.streamForExport(status, from, to)
+                    : repository.streamForExport(from, to)) {
+                Iterator<CouponEntity> iterator = coupons.iterator();
+                while (iterator.hasNext()) {
+                    out.write(writer.writeValueAsBytes(mapper.toResponse(iterator.next())));
+                    out.write('\n');
+                    if (++count % clearInterval == 0) {
+                        entityManager.clear();
+                        out.flush();
+                    }
+                }
+                out.flush();
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+            return count;
+        });
+        return written == null ? 0 : written;
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.coupon.service;
+
+import com.example.coupon.cache.CouponCodeCache;
+import com.example.coupon.dto.CouponResponse;
+import com.example.coupon.entity.CouponStatus;
+import com.example.coupon.exception.BusinessException;
+import com.example.coupon.repository.CouponRepository;
+import com.example.coupon.search.CouponSearchIndex;
+import com.example.coupon.value.CouponCode;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Search over codes and descriptions. Matching happens entirely in the in-memory
+ * {@link CouponSearchIndex}; only the matched coupons are then read, through the code cache and
+ * one {@code IN} query for the misses.
+ */
+@Service
+@Timed(value = "coupon.service", description = "Coupon service operations", histogram = true)
+public class CouponSearchService {
+
+    private final CouponSearchIndex searchIndex;
+    private final CouponRepository repository;
+    private final CouponCodeCache codeCache;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public CouponSearchService(
+            CouponSearchIndex searchIndex,
+            CouponRepository repository,
+            CouponCodeCache codeCache,
+            PlatformTransactionManager transactionManager
+    ) {
+        this.searchIndex = searchIndex;
+        this.repository = repository;
+        this.codeCache = codeCache;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Up to {@code limit} coupons matching {@code query}: code prefix matches first, then
+     * description matches, each in code order. Deleted coupons are left out even while the index
+     * has not caught up with their deletion yet.
+     */
+    public List<CouponResponse> search(String query, int limit) {
+        if (query == null || query.isBlank()) {
+            throw new BusinessException("Search query cannot be blank");
+        }
+        List<Long> keys = searchIndex.search(query, limit);
+        if (keys.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, CouponResponse> coupons = codeCache.getAll(keys, this::load);
+
+        List<CouponResponse> results = new ArrayList<>(keys.size());
+        for (Long key : keys) {
+            CouponResponse coupon = coupons.get(key);
+            if (coupon != null && coupon.status() != CouponStatus.DELETED) {
+                results.add(coupon);
+            }
+        }
+        return results;
+    }
+
+    private Map<Long, CouponResponse> load(Set<Long> keys) {
+        List<String> codes = keys.stream().map(CouponCode::fromKey).toList();
+        return readOnlyTransaction.execute(status -> {
+            Map<Long, CouponResponse> found = new HashMap<>();
+            for (CouponResponse coupon : repository.findResponsesByCodes(codes)) {
+                found.put(CouponCode.toKey(coupon.code()), coupon);
+            }
+            return found;
+        });
+    }
+}
@@ -1,59 +1,235 @@
 package com.example.coupon.service;
 
+import com.example.coupon.cache.CouponCodeCache;
+import com.example.coupon.cache.CouponCodeFilter;
 import com.example.coupon.dto.CouponRequest;
+import com.example.coupon.dto.CouponResponse;
+import com.example.coupon.entity.CouponChangeType;
 import com.example.coupon.entity.CouponEntity;
 import com.example.coupon.entity.CouponStatus;
 import com.example.coupon.exception.BusinessException;
+import com.example.coupon.exception.ConstraintViolations;
+import com.example.coupon.journal.RedemptionEvent;
+import com.example.coupon.journal.RedemptionJournal;
+import com.example.coupon.pagination.KeysetCursor;
+import com.example.coupon.redemption.RedemptionLedger;
 import com.example.coupon.repository.CouponRepository;
+import com.example.coupon.value.CouponCode;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
 
 @Service
+@Timed(value = "coupon.service", description = "Coupon service operations", histogram = true)
 public class CouponService {
 
     private final CouponRepository repository;
+    private final CouponCodeCache codeCache;
+    private final CouponCodeFilter codeFilter;
+    private final CouponChangeTracker changeTracker;
+    private final CouponChangeLog changeLog;
+    private final RedemptionLedger redemptionLedger;
+    private final RedemptionJournal journal;
+    private final TransactionTemplate transactionTemplate;
 
-    public CouponService(CouponRepository repository) {
+    public CouponService(
+            CouponRepository repository,
+            CouponCodeCache codeCache,
+            CouponCodeFilter codeFilter,
+            CouponChangeTracker changeTracker,
+            CouponChangeLog changeLog,
+            RedemptionLedger redemptionLedger,
+            RedemptionJournal journal,
+            PlatformTransactionManager transactionManager
+    ) {
         this.repository = repository;
+        this.codeCache = codeCache;
+        this.codeFilter = codeFilter;
+        this.changeTracker = changeTracker;
+        this.changeLog = changeLog;
+        this.redemptionLedger = redemptionLedger;
+        this.journal = journal;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
+    /**
+     * Insert-first: a single INSERT, with the unique constraint on {@code code} deciding duplicates.
+     * A pre-check would cost a second statement and still race with concurrent creates.
+     */
     @Transactional
     public CouponEntity create(CouponRequest request) {
-        repository.findByCode(request.getCode().replaceAll("[^a-zA-Z0-9]", "").toUpperCase())
-                .ifPresent(c -> { throw new BusinessException("Coupon code already exists"); });
-
+        CouponCode code = new CouponCode(request.getCode());
         CouponEntity coupon = CouponEntity.create(
-                request.getCode(),
+                code,
                 request.getDescription(),
                 request.getDiscountValue(),
                 request.getExpirationDate(),
-                request.isPublished()
+                request.isPublished(),
+                request.getMaxRedemptions()
         );
 
-        return repository.save(coupon);
+        try {
+            repository.saveAndFlush(coupon);
+        } catch (DataIntegrityViolationException ex) {
+            if (ConstraintViolations.isViolationOf(ex, CouponEntity.CODE_CONSTRAINT, CouponEntity.CODE_COLUMN)) {
+                codeFilter.put(code.getKey());
+                throw new BusinessException("Coupon code already exists");
+            }
+            throw ex;
+        }
+
+        changeTracker.markChanged();
+        changeLog.record(CouponChangeType.CREATED, coupon.getId());
+        codeCache.invalidate(code.getKey());
+        codeFilter.put(code.getKey());
+        return coupon;
     }
 
+    /**
+     * One conditional UPDATE; only when it matches nothing does a second query tell a missing
+     * coupon apart from one that was already deleted.
+     */
     @Transactional
     public void delete(UUID id) {
-        CouponEntity coupon = repository.findById(id)
-                .orElseThrow(() -> new BusinessException("Coupon not found"));
+        if (repository.softDelete(id) == 0) {
+            throw new BusinessException(repository.existsById(id) ? "Coupon already deleted" : "Coupon not found");
+        }
+        changeTracker.markChanged();
+        changeLog.record(CouponChangeType.DELETED, id);
+        codeCache.invalidateById(id);
+    }
+
+    public CouponEntity redeem(String rawCode) {
+        return redeem(rawCode, null);
+    }
+
+    /**
+     * Single-use coupons flip {@code redeemed} in one conditional UPDATE. Multi-use coupons are served
+     * from the in-memory budget of {@link RedemptionLedger} and reach the database only to lease more.
+     * Not transactional itself, so a lease never waits for a second connection while holding one.
+     * Every successful redemption is journaled before returning; the audit row follows asynchronously.
+     */
+    public CouponEntity redeem(String rawCode, String orderReference) {
+        CouponCode code = new CouponCode(rawCode);
+        if (orderReference != null && orderReference.getBytes(StandardCharsets.UTF_8).length > RedemptionEvent.MAX_ORDER_REFERENCE_BYTES) {
+            throw new BusinessException("Order reference is too long");
+        }
+        LocalDateTime now = LocalDateTime.now();
 
-        coupon.markAsDeleted();
-        repository.save(coupon);
+        CouponEntity coupon = redemptionLedger.isShared(code.getCode())
+                ? redeemShared(findByCode(code), now)
+                : redeemSingleUse(code, now);
+        journal.append(new RedemptionEvent(coupon.getId(), code.getKey(), System.currentTimeMillis(), orderReference));
+        return coupon;
+    }
+
+    private CouponEntity redeemSingleUse(CouponCode code, LocalDateTime now) {
+        CouponEntity coupon = transactionTemplate.execute(status -> {
+            int updated = repository.redeemByCode(code.getCode(), now);
+            if (updated > 0) {
+                changeTracker.markChanged();
+                changeLog.recordCodes(CouponChangeType.REDEEMED, List.of(code.getCode()));
+                codeCache.invalidate(code.getKey());
+            }
+
+            // Not through the caches: their copy predates the UPDATE until this transaction commits.
+            CouponEntity found = repository.findCurrentByCode(code.getCode())
+                    .orElseThrow(() -> new BusinessException("Coupon not found"));
+            if (updated == 0 && !found.isMultiUse()) {
+                throw new BusinessException(redemptionFailureReason(found, now));
+            }
+            return found;
+        });
+        // First redemption of a multi-use coupon on this instance: the UPDATE above matched nothing.
+        return coupon.isMultiUse() ? redeemShared(coupon, now) : coupon;
+    }
+
+    @Transactional(readOnly = true)
+    public CouponResponse getById(UUID id) {
+        return repository.findResponseById(id)
+                .orElseThrow(() -> new BusinessException("Coupon not found"));
     }
 
+    /**
+     * Version of a single coupon, for answering conditional requests without loading the entity.
+     */
     @Transactional(readOnly = true)
-    public CouponEntity getById(UUID id) {
-        return repository.findById(id)
+    public long getVersion(UUID id) {
+        return repository.findVersionById(id)
                 .orElseThrow(() -> new BusinessException("Coupon not found"));
     }
 
+    /**
+     * Changes whenever any coupon changes; validator for the listing ETags.
+     */
+    public long listingVersion() {
+        return changeTracker.currentVersion();
+    }
+
+    /**
+     * Served from the code cache; only misses reach the database. Not transactional on purpose,
+     * so a cache hit never borrows a connection.
+     */
+    public CouponResponse getByCode(String rawCode) {
+        long codeKey = CouponCode.keyOf(rawCode);
+        return codeCache.get(codeKey, key -> repository.findResponseByCode(CouponCode.fromKey(key))
+                .orElseThrow(() -> new BusinessException("Coupon not found")));
+    }
+
+    @Transactional(readOnly = true)
+    public Page<CouponResponse> listAll(Pageable pageable) {
+        return repository.findResponsesByStatus(CouponStatus.ACTIVE, pageable);
+    }
+
     @Transactional(readOnly = true)
-    public Page<CouponEntity> listAll(Pageable pageable) {
-        return repository.findAllByStatus(CouponStatus.ACTIVE, pageable);
+    public Slice<CouponResponse> scroll(KeysetCursor after, int size) {
+        Pageable limit = PageRequest.ofSize(size);
+        if (after == null) {
+            return repository.findFirstResponses(CouponStatus.ACTIVE, limit);
+        }
+        return repository.findResponsesAfter(CouponStatus.ACTIVE, after.expirationDate(), after.id(), limit);
+    }
+
+    private CouponEntity redeemShared(CouponEntity coupon, LocalDateTime now) {
+        if (coupon.getStatus() != CouponStatus.ACTIVE) {
+            throw new BusinessException("Coupon is not active");
+        }
+        if (!coupon.getExpirationDate().isAfter(now)) {
+            throw new BusinessException("Coupon expired");
+        }
+        if (!redemptionLedger.tryRedeem(coupon.getCode())) {
+            throw new BusinessException("Coupon redemption limit reached");
+        }
+        return coupon;
+    }
+
+    private CouponEntity findByCode(CouponCode code) {
+        return repository.findByCode(code.getCode())
+                .orElseThrow(() -> new BusinessException("Coupon not found"));
+    }
+
+    private String redemptionFailureReason(CouponEntity coupon, LocalDateTime now) {
+        if (coupon.getStatus() != CouponStatus.ACTIVE) {
+            return "Coupon is not active";
+        }
+        if (coupon.isRedeemed()) {
+            return "Coupon already redeemed";
+        }
+        if (!coupon.getExpirationDate().isAfter(now)) {
+            return "Coupon expired";
+        }
+        return "Coupon could not be redeemed";
     }
 }
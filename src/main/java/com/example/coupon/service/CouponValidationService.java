@@ -0,0 +1,118 @@
+package com.example.coupon.service;
+
+import com.example.coupon.cache.CouponCodeCache;
+import com.example.coupon.dto.CodeValidationResult;
+import com.example.coupon.dto.CouponResponse;
+import com.example.coupon.entity.CouponStatus;
+import com.example.coupon.repository.CouponRepository;
+import com.example.coupon.value.CouponCode;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Checks a cart of codes in one call. Codes are resolved through the code cache, and all misses
+ * are loaded together: one read-only transaction with one {@code IN} query per
+ * {@code coupon.validate.chunk-size} distinct codes, so a typical cart costs at most one round
+ * trip. A verdict is a snapshot; redeeming stays the authoritative check.
+ */
+@Service
+@Timed(value = "coupon.service", description = "Coupon service operations", histogram = true)
+public class CouponValidationService {
+
+    private final CouponRepository repository;
+    private final CouponCodeCache codeCache;
+    private final TransactionTemplate readOnlyTransaction;
+    private final int chunkSize;
+
+    public CouponValidationService(
+            CouponRepository repository,
+            CouponCodeCache codeCache,
+            PlatformTransactionManager transactionManager,
+            @Value("${coupon.validate.chunk-size:1000}") int chunkSize
+    ) {
+        this.repository = repository;
+        this.codeCache = codeCache;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * One verdict per code, in request order. Repeated codes are looked up once.
+     */
+    public List<CodeValidationResult> validate(List<String> rawCodes) {
+        long[] keys = new long[rawCodes.size()];
+        Set<Long> distinct = new LinkedHashSet<>();
+        for (int i = 0; i < keys.length; i++) {
+            String raw = rawCodes.get(i);
+            keys[i] = raw == null ? CouponCode.INVALID_KEY : CouponCode.toKey(raw);
+            if (keys[i] != CouponCode.INVALID_KEY) {
+                distinct.add(keys[i]);
+            }
+        }
+        // Not transactional itself, so a cart served entirely from the cache borrows no connection.
+        Map<Long, CouponResponse> coupons = distinct.isEmpty() ? Map.of() : codeCache.getAll(distinct, this::load);
+
+        LocalDateTime now = LocalDateTime.now();
+        List<CodeValidationResult> results = new ArrayList<>(keys.length);
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] == CouponCode.INVALID_KEY) {
+                String raw = rawCodes.get(i);
+                results.add(CodeValidationResult.invalid(i, raw, null, raw == null
+                        ? "Coupon code cannot be null"
+                        : "Coupon code must have exactly 6 alphanumeric characters"));
+                continue;
+            }
+            CouponResponse coupon = coupons.get(keys[i]);
+            if (coupon == null) {
+                results.add(CodeValidationResult.invalid(i, CouponCode.fromKey(keys[i]), null, "Coupon not found"));
+                continue;
+            }
+            String reason = failureReason(coupon, now);
+            results.add(reason == null
+                    ? CodeValidationResult.valid(i, coupon)
+                    : CodeValidationResult.invalid(i, coupon.code(), coupon.id(), reason));
+        }
+        return results;
+    }
+
+    private Map<Long, CouponResponse> load(Set<Long> keys) {
+        List<String> codes = keys.stream().map(CouponCode::fromKey).toList();
+        return readOnlyTransaction.execute(status -> {
+            Map<Long, CouponResponse> found = new HashMap<>();
+            for (int from = 0; from < codes.size(); from += chunkSize) {
+                for (CouponResponse coupon : repository.findResponsesByCodes(codes.subList(from, Math.min(from + chunkSize, codes.size())))) {
+                    found.put(CouponCode.toKey(coupon.code()), coupon);
+                }
+            }
+            return found;
+        });
+    }
+
+    private static String failureReason(CouponResponse coupon, LocalDateTime now) {
+        if (coupon.status() != CouponStatus.ACTIVE) {
+            return "Coupon is not active";
+        }
+        if (!coupon.published()) {
+            return "Coupon is not published";
+        }
+        if (coupon.redeemed()) {
+            return coupon.maxRedemptions() > 1 ? "Coupon redemption limit reached" : "Coupon already redeemed";
+        }
+        if (!coupon.expirationDate().isAfter(now)) {
+            return "Coupon expired";
+        }
+        return null;
+    }
+}
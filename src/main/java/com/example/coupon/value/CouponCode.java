@@ -2,24 +2,89 @@ package com.example.coupon.value;
 
 import com.example.coupon.exception.BusinessException;
 
-import java.util.Objects;
-
 public final class CouponCode {
 
+    public static final int LENGTH = 6;
+
+    /**
+     * Returned by {@link #toKey(CharSequence)} when the input does not sanitize to exactly
+     * {@value #LENGTH} alphanumeric characters. Valid keys are never negative.
+     */
+    public static final long INVALID_KEY = -1L;
+
+    private static final int RADIX = 36;
+
+    private final long key;
     private final String code;
 
     public CouponCode(String code) {
-        if (code == null) {
-            throw new BusinessException("Coupon code cannot be null");
+        this.key = keyOf(code);
+        this.code = fromKey(key);
+    }
+
+    /**
+     * Sanitizes and packs a raw code in a single pass, without regex or intermediate Strings.
+     * Characters outside [a-zA-Z0-9] are skipped, letters are case-folded and the remaining
+     * six characters are read as a base-36 number. 36^6 does not fit in an int, hence the long.
+     */
+    public static long toKey(CharSequence raw) {
+        long key = 0;
+        int digits = 0;
+        for (int i = 0, length = raw.length(); i < length; i++) {
+            int digit = digit(raw.charAt(i));
+            if (digit < 0) {
+                continue;
+            }
+            if (++digits > LENGTH) {
+                return INVALID_KEY;
+            }
+            key = key * RADIX + digit;
         }
-        // Remove caracteres especiais e transforma em maiúsculo
-        String sanitized = code.replaceAll("[^a-zA-Z0-9]", "").toUpperCase();
+        return digits == LENGTH ? key : INVALID_KEY;
+    }
 
-        if (sanitized.length() != 6) {
+    /**
+     * Same as {@link #toKey(CharSequence)} but rejects invalid input with the domain error.
+     */
+    public static long keyOf(String raw) {
+        if (raw == null) {
+            throw new BusinessException("Coupon code cannot be null");
+        }
+        long key = toKey(raw);
+        if (key == INVALID_KEY) {
             throw new BusinessException("Coupon code must have exactly 6 alphanumeric characters");
         }
+        return key;
+    }
+
+    /**
+     * Canonical (upper case) textual form of a key produced by {@link #toKey(CharSequence)}.
+     */
+    public static String fromKey(long key) {
+        char[] chars = new char[LENGTH];
+        for (int i = LENGTH - 1; i >= 0; i--) {
+            int digit = (int) (key % RADIX);
+            chars[i] = (char) (digit < 10 ? '0' + digit : 'A' + digit - 10);
+            key /= RADIX;
+        }
+        return new String(chars);
+    }
+
+    private static int digit(char c) {
+        if (c >= '0' && c <= '9') {
+            return c - '0';
+        }
+        if (c >= 'A' && c <= 'Z') {
+            return c - 'A' + 10;
+        }
+        if (c >= 'a' && c <= 'z') {
+            return c - 'a' + 10;
+        }
+        return -1;
+    }
 
-        this.code = sanitized;
+    public long getKey() {
+        return key;
     }
 
     public String getCode() {
@@ -31,12 +96,12 @@ public final class CouponCode {
         if (this == o) return true;
         if (!(o instanceof CouponCode)) return false;
         CouponCode that = (CouponCode) o;
-        return code.equals(that.code);
+        return key == that.key;
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(code);
+        return Long.hashCode(key);
     }
 
     @Override
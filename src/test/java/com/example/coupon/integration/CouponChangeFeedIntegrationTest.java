@@ -0,0 +1,239 @@
+package com.example.coupon.integration;
+
+import com.example.coupon.dto.CouponChangeResponse;
+import com.example.coupon.dto.CouponRequest;
+import com.example.coupon.entity.CouponChangeType;
+import com.example.coupon.entity.CouponEntity;
+import com.example.coupon.entity.CouponStatus;
+import com.example.coupon.exception.BusinessException;
+import com.example.coupon.repository.CouponChangeRepository;
+import com.example.coupon.repository.CouponRepository;
+import com.example.coupon.service.CouponBatchService;
+import com.example.coupon.service.CouponService;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.data.domain.PageRequest;
+
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "coupon.changes.poll-interval=PT0.1S"
+)
+class CouponChangeFeedIntegrationTest {
+
+    private static final TypeReference<List<CouponChangeResponse>> CHANGES = new TypeReference<>() {
+    };
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private CouponService service;
+
+    @Autowired
+    private CouponRepository repository;
+
+    @Autowired
+    private CouponBatchService batchService;
+
+    @Autowired
+    private CouponChangeRepository changes;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @BeforeEach
+    void setUp() {
+        repository.deleteAll();
+    }
+
+    @Test
+    void shouldRecordChangesWithTheirTransaction() {
+        long before = lastSeq();
+        CouponEntity coupon = service.create(request("FEED01"));
+        assertThrows(BusinessException.class, () -> service.create(request("FEED01")));
+        service.redeem("FEED01");
+        assertThrows(BusinessException.class, () -> service.redeem("FEED01"));
+        service.delete(coupon.getId());
+
+        List<CouponChangeResponse> recorded = changes.findAfter(before, PageRequest.ofSize(100)).stream()
+                .filter(change -> change.couponId().equals(coupon.getId()))
+                .toList();
+
+        assertEquals(List.of(CouponChangeType.CREATED, CouponChangeType.REDEEMED, CouponChangeType.DELETED),
+                recorded.stream().map(CouponChangeResponse::type).toList());
+        assertEquals(List.of(CouponStatus.ACTIVE, CouponStatus.ACTIVE, CouponStatus.DELETED),
+                recorded.stream().map(CouponChangeResponse::status).toList());
+        assertTrue(recorded.get(0).version() < recorded.get(1).version());
+        assertTrue(recorded.get(1).version() < recorded.get(2).version());
+    }
+
+    @Test
+    void shouldRecordBulkDeletesOnlyForRowsTheyChanged() {
+        UUID deletedBefore = service.create(request("FEED06")).getId();
+        UUID live = service.create(request("FEED07")).getId();
+        service.delete(deletedBefore);
+        long before = lastSeq();
+
+        batchService.deleteAll(List.of(deletedBefore, live, UUID.randomUUID()));
+
+        List<CouponChangeResponse> recorded = changes.findAfter(before, PageRequest.ofSize(100));
+        assertEquals(List.of(live), recorded.stream().map(CouponChangeResponse::couponId).toList());
+        assertEquals(CouponChangeType.DELETED, recorded.get(0).type());
+    }
+
+    @Test
+    void shouldStreamChangesAfterSince() {
+        long since = lastSeq();
+        UUID first = service.create(request("FEED02")).getId();
+        UUID second = service.create(request("FEED03")).getId();
+
+        List<CouponChangeResponse> received = changesOf(
+                readEvents("?since=" + since, null, events -> changesOf(events, Set.of(first, second)).size() == 2),
+                Set.of(first, second));
+
+        assertEquals(List.of(first, second), received.stream().map(CouponChangeResponse::couponId).toList());
+    }
+
+    @Test
+    void shouldResumeAfterLastEventId() {
+        long since = lastSeq();
+        UUID first = service.create(request("FEED04")).getId();
+        UUID second = service.create(request("FEED05")).getId();
+        long firstSeq = changes.findAfter(since, PageRequest.ofSize(100)).stream()
+                .filter(change -> change.couponId().equals(first))
+                .findFirst()
+                .orElseThrow()
+                .seq();
+
+        // The header wins over the since of the original URL, as on an EventSource reconnect.
+        List<CouponChangeResponse> received = changesOf(
+                readEvents("?since=" + since, Long.toString(firstSeq), events -> !changesOf(events, Set.of(second)).isEmpty()),
+                Set.of(first, second));
+
+        assertEquals(List.of(second), received.stream().map(CouponChangeResponse::couponId).toList());
+    }
+
+    @Test
+    void shouldAskForRescanWhenPositionIsNotAvailable() {
+        List<SseEvent> events = readEvents("?since=" + (lastSeq() + 1_000_000), null, received -> !received.isEmpty());
+
+        assertEquals("reset", events.get(0).name());
+    }
+
+    private List<CouponChangeResponse> changesOf(List<SseEvent> events, Set<UUID> couponIds) {
+        List<CouponChangeResponse> result = new ArrayList<>();
+        for (SseEvent event : events) {
+            if ("changes".equals(event.name())) {
+                try {
+                    objectMapper.readValue(event.data(), CHANGES).stream()
+                            .filter(change -> couponIds.contains(change.couponId()))
+                            .forEach(result::add);
+                } catch (Exception ex) {
+                    throw new IllegalStateException(ex);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Reads events from the stream until {@code until} accepts what was received so far.
+     */
+    private List<SseEvent> readEvents(String query, String lastEventId, Predicate<List<SseEvent>> until) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/coupon/changes" + query))
+                .header("Accept", "text/event-stream");
+        if (lastEventId != null) {
+            request.header("Last-Event-ID", lastEventId);
+        }
+
+        CompletableFuture<List<SseEvent>> read = CompletableFuture.supplyAsync(() -> {
+            HttpResponse<Stream<String>> response;
+            try {
+                response = client.send(request.build(), HttpResponse.BodyHandlers.ofLines());
+            } catch (Exception ex) {
+                throw new IllegalStateException(ex);
+            }
+            List<SseEvent> events = new ArrayList<>();
+            try (Stream<String> lines = response.body()) {
+                String name = null;
+                String id = null;
+                StringBuilder data = new StringBuilder();
+                Iterator<String> iterator = lines.iterator();
+                while (iterator.hasNext()) {
+                    String line = iterator.next();
+                    if (line.isEmpty()) {
+                        if (name != null) {
+                            events.add(new SseEvent(name, id, data.toString()));
+                            if (until.test(events)) {
+                                break;
+                            }
+                        }
+                        name = null;
+                        id = null;
+                        data.setLength(0);
+                    } else if (line.startsWith("event:")) {
+                        name = line.substring("event:".length());
+                    } else if (line.startsWith("id:")) {
+                        id = line.substring("id:".length());
+                    } else if (line.startsWith("data:")) {
+                        data.append(line.substring("data:".length()));
+                    }
+                }
+            } catch (UncheckedIOException ex) {
+                // Connection closed by the server.
+            }
+            return events;
+        });
+        try {
+            return read.get(10, TimeUnit.SECONDS);
+        } catch (Exception ex) {
+            read.cancel(true);
+            throw new AssertionError("Did not receive the expected events", ex);
+        }
+    }
+
+    private long lastSeq() {
+        return changes.findLastSeq().orElse(0L);
+    }
+
+    private static CouponRequest request(String code) {
+        CouponRequest request = new CouponRequest();
+        request.setCode(code);
+        request.setDescription("Change feed");
+        request.setDiscountValue(BigDecimal.valueOf(1.0));
+        request.setExpirationDate(LocalDateTime.now().plusDays(5));
+        request.setPublished(true);
+        return request;
+    }
+
+    private record SseEvent(String name, String id, String data) {
+    }
+}
@@ -1,9 +1,16 @@
 package com.example.coupon.integration;
 
+import com.example.coupon.dto.BatchCreateResponse;
+import com.example.coupon.dto.BatchItemResult;
+import com.example.coupon.dto.BulkDeleteResponse;
+import com.example.coupon.dto.CodeValidationResponse;
 import com.example.coupon.dto.CouponRequest;
 import com.example.coupon.dto.CouponResponse;
+import com.example.coupon.dto.CursorPage;
+import com.example.coupon.dto.ImportJobResponse;
 import com.example.coupon.entity.CouponEntity;
 import com.example.coupon.entity.CouponStatus;
+import com.example.coupon.importing.ImportJob;
 import com.example.coupon.repository.CouponRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -11,14 +18,23 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.client.TestRestTemplate;
 import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
@@ -60,8 +76,89 @@ class CouponControllerIntegrationTest {
 
         CouponResponse coupon = response.getBody();
         assertNotNull(coupon);
-        assertEquals("AB1C2D", coupon.getCode());
-        assertEquals(CouponStatus.ACTIVE, coupon.getStatus());
+        assertEquals("AB1C2D", coupon.code());
+        assertEquals(CouponStatus.ACTIVE, coupon.status());
+    }
+
+    @Test
+    void shouldCreateCouponsInBatchWithPerItemResults() {
+        repository.save(CouponEntity.create(
+                "EXIST1",
+                "Existing",
+                BigDecimal.valueOf(1.0),
+                LocalDateTime.now().plusDays(5),
+                false
+        ));
+
+        CouponRequest valid = new CouponRequest();
+        valid.setCode("BAT-001");
+        valid.setDescription("Batch 1");
+        valid.setDiscountValue(BigDecimal.valueOf(1.0));
+        valid.setExpirationDate(LocalDateTime.now().plusDays(5));
+
+        CouponRequest duplicateInBatch = new CouponRequest();
+        duplicateInBatch.setCode("bat001");
+        duplicateInBatch.setDescription("Batch 1 again");
+        duplicateInBatch.setDiscountValue(BigDecimal.valueOf(1.0));
+        duplicateInBatch.setExpirationDate(LocalDateTime.now().plusDays(5));
+
+        CouponRequest existing = new CouponRequest();
+        existing.setCode("EXIST1");
+        existing.setDescription("Already there");
+        existing.setDiscountValue(BigDecimal.valueOf(1.0));
+        existing.setExpirationDate(LocalDateTime.now().plusDays(5));
+
+        CouponRequest invalid = new CouponRequest();
+        invalid.setCode("BAT002");
+        invalid.setDescription("Too small");
+        invalid.setDiscountValue(BigDecimal.valueOf(0.1));
+        invalid.setExpirationDate(LocalDateTime.now().plusDays(5));
+
+        ResponseEntity<BatchCreateResponse> response = restTemplate.postForEntity(
+                baseUrl + "/batch", List.of(valid, duplicateInBatch, existing, invalid), BatchCreateResponse.class
+        );
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        BatchCreateResponse body = response.getBody();
+        assertNotNull(body);
+        assertEquals(4, body.total());
+        assertEquals(1, body.created());
+        assertEquals(BatchItemResult.Status.CREATED, body.items().get(0).status());
+        assertEquals("Duplicate coupon code in batch", body.items().get(1).message());
+        assertEquals("Coupon code already exists", body.items().get(2).message());
+        assertEquals(BatchItemResult.Status.REJECTED, body.items().get(3).status());
+        assertTrue(repository.findByCode("BAT001").isPresent());
+    }
+
+    @Test
+    void shouldImportCsvAndReportRejects() {
+        String expiration = LocalDateTime.now().plusDays(5).withNano(0).toString();
+        String csv = "code,description,discountValue,expirationDate,published\n" +
+                "IMP001,\"Ten, off\",1.0," + expiration + ",true\n" +
+                "IMP002,Bad discount,abc," + expiration + ",false\n" +
+                "IMP001,Duplicate,1.0," + expiration + ",false\n";
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType("text/csv"));
+
+        ResponseEntity<ImportJobResponse> response = restTemplate.postForEntity(
+                baseUrl + "/import", new HttpEntity<>(csv, headers), ImportJobResponse.class
+        );
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        ImportJobResponse job = response.getBody();
+        assertNotNull(job);
+        assertEquals(ImportJob.Status.COMPLETED, job.status());
+        assertEquals(3, job.rowsRead());
+        assertEquals(1, job.created());
+        assertEquals(2, job.rejected());
+        assertEquals("Ten, off", repository.findByCode("IMP001").orElseThrow().getDescription());
+
+        ResponseEntity<ImportJobResponse> status = restTemplate.getForEntity(
+                baseUrl + "/import/" + job.id(), ImportJobResponse.class
+        );
+        assertEquals(HttpStatus.OK, status.getStatusCode());
+        assertEquals(job.id(), status.getBody().id());
     }
 
     @Test
@@ -109,7 +206,49 @@ class CouponControllerIntegrationTest {
         );
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
-        assertEquals(saved.getId(), response.getBody().getId());
+        assertEquals(saved.getId(), response.getBody().id());
+    }
+
+    @Test
+    void shouldAnswerNotModifiedForUnchangedCoupon() {
+        CouponEntity saved = repository.save(CouponEntity.create(
+                "ETAG01", "Desc", BigDecimal.valueOf(1.0), LocalDateTime.now().plusDays(5), true
+        ));
+        String url = baseUrl + "/" + saved.getId();
+
+        ResponseEntity<CouponResponse> first = restTemplate.getForEntity(url, CouponResponse.class);
+        String eTag = first.getHeaders().getETag();
+        assertEquals(HttpStatus.OK, first.getStatusCode());
+        assertEquals("\"0\"", eTag);
+
+        assertEquals(HttpStatus.NOT_MODIFIED, conditionalGet(url, eTag).getStatusCode());
+
+        restTemplate.postForEntity(baseUrl + "/ETAG01/redeem", null, CouponResponse.class);
+
+        ResponseEntity<String> changed = conditionalGet(url, eTag);
+        assertEquals(HttpStatus.OK, changed.getStatusCode());
+        assertEquals("\"1\"", changed.getHeaders().getETag());
+    }
+
+    @Test
+    void shouldAnswerNotModifiedForUnchangedListing() {
+        String url = baseUrl + "?page=0&size=10";
+        ResponseEntity<String> first = restTemplate.getForEntity(url, String.class);
+        String eTag = first.getHeaders().getETag();
+        assertNotNull(eTag);
+
+        assertEquals(HttpStatus.NOT_MODIFIED, conditionalGet(url, eTag).getStatusCode());
+
+        CouponRequest request = new CouponRequest();
+        request.setCode("ETAG02");
+        request.setDescription("Desc");
+        request.setDiscountValue(BigDecimal.valueOf(1.0));
+        request.setExpirationDate(LocalDateTime.now().plusDays(5));
+        restTemplate.postForEntity(baseUrl, request, CouponResponse.class);
+
+        ResponseEntity<String> changed = conditionalGet(url, eTag);
+        assertEquals(HttpStatus.OK, changed.getStatusCode());
+        assertTrue(changed.getBody().contains("ETAG02"));
     }
 
     @Test
@@ -158,6 +297,123 @@ class CouponControllerIntegrationTest {
         assertTrue(response.getBody().contains("Coupon already deleted"));
     }
 
+    @Test
+    void shouldSoftDeleteCouponsInBulk() {
+        CouponEntity first = repository.save(CouponEntity.create(
+                "BULK01", "Desc", BigDecimal.valueOf(1.0), LocalDateTime.now().plusDays(5), false
+        ));
+        CouponEntity second = repository.save(CouponEntity.create(
+                "BULK02", "Desc", BigDecimal.valueOf(1.0), LocalDateTime.now().plusDays(5), false
+        ));
+        CouponEntity kept = repository.save(CouponEntity.create(
+                "BULK03", "Desc", BigDecimal.valueOf(1.0), LocalDateTime.now().plusDays(5), false
+        ));
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        ResponseEntity<BulkDeleteResponse> response = restTemplate.exchange(
+                baseUrl,
+                HttpMethod.DELETE,
+                new HttpEntity<>(List.of(first.getId(), second.getId(), second.getId(), UUID.randomUUID()), headers),
+                BulkDeleteResponse.class
+        );
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        BulkDeleteResponse body = response.getBody();
+        assertNotNull(body);
+        assertEquals(3, body.requested());
+        assertEquals(2, body.deleted());
+        assertEquals(1, body.skipped());
+        assertEquals(CouponStatus.DELETED, repository.findById(first.getId()).orElseThrow().getStatus());
+        assertEquals(CouponStatus.DELETED, repository.findById(second.getId()).orElseThrow().getStatus());
+        assertEquals(CouponStatus.ACTIVE, repository.findById(kept.getId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    void shouldValidateCartCodesInOneCall() {
+        repository.save(CouponEntity.create(
+                "CART01", "Desc", BigDecimal.valueOf(3.0), LocalDateTime.now().plusDays(5), true
+        ));
+
+        ResponseEntity<CodeValidationResponse> response = restTemplate.postForEntity(
+                baseUrl + "/validate",
+                List.of("cart-01", "NONE01"),
+                CodeValidationResponse.class
+        );
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        CodeValidationResponse body = response.getBody();
+        assertNotNull(body);
+        assertEquals(2, body.total());
+        assertEquals(1, body.valid());
+        assertEquals("CART01", body.items().get(0).code());
+        assertEquals(0, BigDecimal.valueOf(3.0).compareTo(body.items().get(0).discountValue()));
+        assertEquals("Coupon not found", body.items().get(1).message());
+    }
+
+    @Test
+    void shouldRejectTooManyCodesToValidate() {
+        List<String> codes = Collections.nCopies(1_001, "CART01");
+
+        ResponseEntity<String> response = restTemplate.postForEntity(baseUrl + "/validate", codes, String.class);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertTrue(response.getBody().contains("At most 1000 codes can be validated at once"));
+    }
+
+    @Test
+    void shouldRedeemCouponOnlyOnce() {
+        repository.save(CouponEntity.create(
+                "RED123",
+                "Desc",
+                BigDecimal.valueOf(1.0),
+                LocalDateTime.now().plusDays(5),
+                true
+        ));
+
+        ResponseEntity<CouponResponse> first = restTemplate.postForEntity(
+                baseUrl + "/RED123/redeem", null, CouponResponse.class
+        );
+        ResponseEntity<String> second = restTemplate.postForEntity(
+                baseUrl + "/RED123/redeem", null, String.class
+        );
+
+        assertEquals(HttpStatus.OK, first.getStatusCode());
+        assertTrue(first.getBody().redeemed());
+        assertEquals(HttpStatus.CONFLICT, second.getStatusCode());
+        assertTrue(second.getBody().contains("Coupon already redeemed"));
+    }
+
+    @Test
+    void shouldExportCouponsAsNdjson() {
+        repository.save(CouponEntity.create(
+                "EXP001",
+                "Active",
+                BigDecimal.valueOf(1.0),
+                LocalDateTime.now().plusDays(5),
+                false
+        ));
+        CouponEntity deleted = CouponEntity.create(
+                "EXP002",
+                "Deleted",
+                BigDecimal.valueOf(1.0),
+                LocalDateTime.now().plusDays(5),
+                false
+        );
+        deleted.markAsDeleted();
+        repository.save(deleted);
+
+        ResponseEntity<String> response = restTemplate.getForEntity(
+                baseUrl + "/export?status=ACTIVE",
+                String.class
+        );
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        String[] lines = response.getBody().split("\n");
+        assertEquals(1, lines.length);
+        assertTrue(lines[0].contains("EXP001"));
+    }
+
     @Test
     void shouldListCoupons() {
         repository.save(CouponEntity.create(
@@ -184,4 +440,77 @@ class CouponControllerIntegrationTest {
         assertTrue(response.getBody().contains("ABC123"));
         assertTrue(response.getBody().contains("DEF456"));
     }
+
+    @Test
+    void shouldScrollThroughTiesOnExpirationDate() {
+        // Whole seconds, so the stored value and the one in the cursor compare equal.
+        LocalDateTime shared = LocalDateTime.now().plusDays(5).truncatedTo(ChronoUnit.SECONDS);
+        List<String> expected = new ArrayList<>();
+        repository.save(CouponEntity.create("SCR000", "Desc", BigDecimal.valueOf(1.0), shared.minusDays(1), true));
+        expected.add("SCR000");
+        for (int i = 1; i <= 5; i++) {
+            repository.save(CouponEntity.create("SCR00" + i, "Desc", BigDecimal.valueOf(1.0), shared, true));
+            expected.add("SCR00" + i);
+        }
+        repository.save(CouponEntity.create("SCR009", "Desc", BigDecimal.valueOf(1.0), shared.plusDays(1), true));
+        expected.add("SCR009");
+
+        List<CouponResponse> scrolled = new ArrayList<>();
+        String cursor = null;
+        int slices = 0;
+        do {
+            CursorPage<CouponResponse> slice = scroll(cursor, 2);
+            assertTrue(slice.size() <= 2);
+            scrolled.addAll(slice.content());
+            cursor = slice.nextCursor();
+            assertEquals(cursor != null, slice.hasNext());
+            slices++;
+        } while (cursor != null && slices < 10);
+
+        assertEquals(4, slices);
+        assertEquals(expected.size(), scrolled.stream().map(CouponResponse::id).distinct().count());
+        assertEquals(Set.copyOf(expected), scrolled.stream().map(CouponResponse::code).collect(Collectors.toSet()));
+        for (int i = 1; i < scrolled.size(); i++) {
+            assertTrue(!scrolled.get(i).expirationDate().isBefore(scrolled.get(i - 1).expirationDate()));
+        }
+        assertEquals("SCR000", scrolled.get(0).code());
+        assertEquals("SCR009", scrolled.get(scrolled.size() - 1).code());
+    }
+
+    @Test
+    void shouldRejectInvalidScrollCursor() {
+        ResponseEntity<String> response = restTemplate.getForEntity(
+                baseUrl + "/scroll?cursor={cursor}", String.class, "not-a-cursor");
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertTrue(response.getBody().contains("Invalid cursor"));
+    }
+
+    @Test
+    void shouldCapScrollSliceSize() {
+        assertEquals(HttpStatus.OK, restTemplate.getForEntity(baseUrl + "/scroll?size=100", String.class).getStatusCode());
+
+        ResponseEntity<String> tooLarge = restTemplate.getForEntity(baseUrl + "/scroll?size=101", String.class);
+        assertEquals(HttpStatus.BAD_REQUEST, tooLarge.getStatusCode());
+        assertTrue(tooLarge.getBody().contains("Page size must be between 1 and 100"));
+
+        assertEquals(HttpStatus.BAD_REQUEST, restTemplate.getForEntity(baseUrl + "/scroll?size=0", String.class).getStatusCode());
+    }
+
+    private CursorPage<CouponResponse> scroll(String cursor, int size) {
+        String url = cursor == null
+                ? baseUrl + "/scroll?size=" + size
+                : baseUrl + "/scroll?size=" + size + "&cursor=" + cursor;
+        ResponseEntity<CursorPage<CouponResponse>> response = restTemplate.exchange(
+                url, HttpMethod.GET, null, new ParameterizedTypeReference<CursorPage<CouponResponse>>() {});
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertNotNull(response.getBody());
+        return response.getBody();
+    }
+
+    private ResponseEntity<String> conditionalGet(String url, String eTag) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setIfNoneMatch(eTag);
+        return restTemplate.exchange(url, HttpMethod.GET, new HttpEntity<>(headers), String.class);
+    }
 }
@@ -0,0 +1,167 @@
+package com.example.coupon.integration;
+
+import com.example.coupon.dto.CouponRequest;
+import com.example.coupon.repository.CouponRepository;
+import com.example.coupon.service.CouponChangeTracker;
+import com.example.coupon.service.CouponService;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "spring.datasource.url=jdbc:h2:mem:create-race",
+                "coupon.sweeper.enabled=false",
+                "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                        + "com.example.coupon.integration.CouponCreateConcurrencyTest$RecordedStatements"
+        }
+)
+class CouponCreateConcurrencyTest {
+
+    private static final int THREADS = 32;
+    private static final int ROUNDS = 10;
+    // The insert itself, the change counter bump behind the listing ETag, and the change feed entry.
+    private static final int STATEMENTS_PER_CREATE = 1 + 1 + 1;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private CouponService service;
+
+    @Autowired
+    private CouponRepository repository;
+
+    @Autowired
+    private CouponChangeTracker changeTracker;
+
+    @BeforeEach
+    void setUp() {
+        repository.deleteAll();
+        RecordedStatements.RECORDED.clear();
+    }
+
+    @Test
+    void shouldCreateWithASingleStatement() {
+        int creates = 20;
+        long versionBefore = changeTracker.currentVersion();
+        RecordedStatements.RECORDED.clear();
+        for (int i = 0; i < creates; i++) {
+            service.create(request("STMT%02d".formatted(i)));
+        }
+        // Only this thread's statements: the change feed poller and other background jobs share the session factory.
+        List<String> statements = RecordedStatements.issuedBy(Thread.currentThread());
+
+        // The former select-then-insert path prepared an extra select per create.
+        assertEquals(creates * STATEMENTS_PER_CREATE, statements.size());
+        assertEquals(creates, statements.stream().filter(sql -> sql.startsWith("insert into coupons ")).count());
+        assertEquals(creates, changeTracker.currentVersion() - versionBefore);
+    }
+
+    @Test
+    void shouldAnswerConflictToEveryLoserUnderContention() throws Exception {
+        String url = "http://localhost:" + port + "/coupon";
+        AtomicInteger created = new AtomicInteger();
+        AtomicInteger conflicts = new AtomicInteger();
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        for (int round = 0; round < ROUNDS; round++) {
+            CouponRequest request = request("RACE%02d".formatted(round));
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<HttpStatus>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    ResponseEntity<String> response = restTemplate.postForEntity(url, request, String.class);
+                    return HttpStatus.valueOf(response.getStatusCode().value());
+                }));
+            }
+            start.countDown();
+            for (Future<HttpStatus> future : futures) {
+                HttpStatus status = future.get();
+                if (status == HttpStatus.CREATED) {
+                    created.incrementAndGet();
+                } else {
+                    assertEquals(HttpStatus.CONFLICT, status);
+                    conflicts.incrementAndGet();
+                }
+            }
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        // Writes only: background jobs keep reading (the change feed poller, the search index refresh),
+        // but none of them writes while nothing is redeemed or expires.
+        long statements = RecordedStatements.writes();
+
+        assertEquals(ROUNDS, created.get());
+        assertEquals(ROUNDS * (THREADS - 1), conflicts.get());
+        assertEquals(ROUNDS, repository.count());
+        // Losers run only the failed insert and no id lookup; a pre-check select would show up in the first test.
+        assertEquals(ROUNDS * (THREADS - 1) + ROUNDS * STATEMENTS_PER_CREATE, statements);
+    }
+
+    /**
+     * Every statement Hibernate prepares in this test's context, with the thread that prepared it.
+     */
+    public static class RecordedStatements implements StatementInspector {
+
+        static final Queue<Recorded> RECORDED = new ConcurrentLinkedQueue<>();
+
+        @Override
+        public String inspect(String sql) {
+            RECORDED.add(new Recorded(Thread.currentThread(), sql.strip().toLowerCase(Locale.ROOT)));
+            return sql;
+        }
+
+        static List<String> issuedBy(Thread thread) {
+            return RECORDED.stream().filter(recorded -> recorded.thread() == thread).map(Recorded::sql).toList();
+        }
+
+        static long writes() {
+            return RECORDED.stream()
+                    .map(Recorded::sql)
+                    .filter(sql -> sql.startsWith("insert") || sql.startsWith("update") || sql.startsWith("delete"))
+                    .count();
+        }
+
+        record Recorded(Thread thread, String sql) {
+        }
+    }
+
+    private static CouponRequest request(String code) {
+        CouponRequest request = new CouponRequest();
+        request.setCode(code);
+        request.setDescription("Concurrent create");
+        request.setDiscountValue(BigDecimal.valueOf(1.0));
+        request.setExpirationDate(LocalDateTime.now().plusDays(5));
+        request.setPublished(true);
+        return request;
+    }
+}
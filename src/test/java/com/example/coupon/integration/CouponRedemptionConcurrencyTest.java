@@ -0,0 +1,155 @@
+package com.example.coupon.integration;
+
+import com.example.coupon.entity.CouponEntity;
+import com.example.coupon.exception.BusinessException;
+import com.example.coupon.journal.RedemptionApplier;
+import com.example.coupon.redemption.RedemptionLedger;
+import com.example.coupon.repository.CouponRedemptionRepository;
+import com.example.coupon.repository.CouponRepository;
+import com.example.coupon.service.CouponService;
+import com.example.coupon.value.CouponCode;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "coupon.redemption.lease-size=64")
+class CouponRedemptionConcurrencyTest {
+
+    private static final int THREADS = 200;
+    private static final int ATTEMPTS_PER_THREAD = 20;
+    private static final int SHARED_BUDGET = 1_000;
+
+    @Autowired
+    private CouponService service;
+
+    @Autowired
+    private CouponRepository repository;
+
+    @Autowired
+    private RedemptionLedger redemptionLedger;
+
+    @Autowired
+    private RedemptionApplier redemptionApplier;
+
+    @Autowired
+    private CouponRedemptionRepository redemptions;
+
+    @BeforeEach
+    void setUp() {
+        redemptionApplier.applyPending();
+        redemptions.deleteAllInBatch();
+        repository.deleteAll();
+        repository.save(CouponEntity.create(
+                "RACE01",
+                "Flash sale",
+                BigDecimal.valueOf(5.0),
+                LocalDateTime.now().plusDays(1),
+                true
+        ));
+        repository.save(CouponEntity.create(
+                new CouponCode("SHARE1"),
+                "Campaign",
+                BigDecimal.valueOf(5.0),
+                LocalDateTime.now().plusDays(1),
+                true,
+                SHARED_BUDGET
+        ));
+    }
+
+    @Test
+    void shouldHaveExactlyOneWinnerUnderContention() throws Exception {
+        AtomicInteger winners = new AtomicInteger();
+        AtomicInteger alreadyRedeemed = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int attempt = 0; attempt < ATTEMPTS_PER_THREAD; attempt++) {
+                    try {
+                        service.redeem("RACE01");
+                        winners.incrementAndGet();
+                    } catch (BusinessException ex) {
+                        assertEquals("Coupon already redeemed", ex.getMessage());
+                        alreadyRedeemed.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        int attempts = THREADS * ATTEMPTS_PER_THREAD;
+
+        assertEquals(1, winners.get());
+        assertEquals(attempts - 1, alreadyRedeemed.get());
+        CouponEntity coupon = repository.findByCode("RACE01").orElseThrow();
+        assertTrue(coupon.isRedeemed());
+        redemptionApplier.applyPending();
+        assertEquals(1, redemptions.countByCouponId(coupon.getId()));
+    }
+
+    @Test
+    void shouldNeverOversellMultiUseCouponUnderContention() throws Exception {
+        AtomicInteger winners = new AtomicInteger();
+        AtomicInteger limitReached = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int attempt = 0; attempt < ATTEMPTS_PER_THREAD; attempt++) {
+                    try {
+                        service.redeem("SHARE1");
+                        winners.incrementAndGet();
+                    } catch (BusinessException ex) {
+                        assertEquals("Coupon redemption limit reached", ex.getMessage());
+                        limitReached.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        redemptionLedger.flush();
+
+        assertEquals(SHARED_BUDGET, winners.get());
+        assertEquals(THREADS * ATTEMPTS_PER_THREAD - SHARED_BUDGET, limitReached.get());
+        CouponEntity coupon = repository.findByCode("SHARE1").orElseThrow();
+        assertEquals(SHARED_BUDGET, coupon.getRedemptionCount());
+        assertTrue(coupon.isRedeemed());
+        redemptionApplier.applyPending();
+        assertEquals(SHARED_BUDGET, redemptions.countByCouponId(coupon.getId()));
+    }
+}
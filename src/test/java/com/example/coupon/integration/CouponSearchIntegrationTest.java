@@ -0,0 +1,139 @@
+package com.example.coupon.integration;
+
+import com.example.coupon.dto.CouponRequest;
+import com.example.coupon.dto.CouponResponse;
+import com.example.coupon.entity.CouponEntity;
+import com.example.coupon.feed.CouponChangeFeed;
+import com.example.coupon.repository.CouponRepository;
+import com.example.coupon.search.CouponSearchIndex;
+import com.example.coupon.service.CouponSearchService;
+import com.example.coupon.service.CouponService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "spring.datasource.url=jdbc:h2:mem:coupon-search",
+                "coupon.sweeper.enabled=false"
+        }
+)
+class CouponSearchIntegrationTest {
+
+    @Autowired
+    private CouponService service;
+
+    @Autowired
+    private CouponSearchService searchService;
+
+    @Autowired
+    private CouponSearchIndex searchIndex;
+
+    @Autowired
+    private CouponChangeFeed changeFeed;
+
+    @Autowired
+    private CouponRepository repository;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @BeforeEach
+    void setUp() {
+        repository.deleteAll();
+        searchIndex.rebuild();
+    }
+
+    @Test
+    void shouldLoadExistingCouponsOnRebuild() {
+        repository.save(CouponEntity.create("LOAD01", "Frete grátis", BigDecimal.ONE, LocalDateTime.now().plusDays(1), true));
+        assertTrue(searchService.search("frete", 10).isEmpty());
+
+        searchIndex.rebuild();
+
+        assertEquals(List.of("LOAD01"), codes(searchService.search("frete gratis", 10)));
+        assertEquals(List.of("LOAD01"), codes(searchService.search("lo", 10)));
+    }
+
+    @Test
+    void shouldFindCreatedCouponsByCodePrefixAndDescription() {
+        service.create(request("BF0001", "Black Friday eletrônicos"));
+        service.create(request("BF0002", "Black Friday moda"));
+        service.create(request("XM0001", "Natal"));
+        catchUp();
+
+        assertEquals(List.of("BF0001", "BF0002"), codes(searchService.search("bf", 10)));
+        assertEquals(List.of("BF0001"), codes(searchService.search("bf", 1)));
+        assertEquals(List.of("BF0001", "BF0002"), codes(searchService.search("BLACK friday", 10)));
+        assertEquals(List.of("BF0001"), codes(searchService.search("friday eletronicos", 10)));
+        assertEquals(List.of("XM0001"), codes(searchService.search("natal", 10)));
+        assertTrue(searchService.search("páscoa", 10).isEmpty());
+    }
+
+    @Test
+    void shouldDropDeletedCoupons() {
+        UUID id = service.create(request("DEL001", "Cupom removido")).getId();
+        catchUp();
+        assertEquals(List.of("DEL001"), codes(searchService.search("removido", 10)));
+
+        service.delete(id);
+        // Filtered out even before the index has caught up with the deletion.
+        assertTrue(searchService.search("removido", 10).isEmpty());
+
+        catchUp();
+        assertTrue(searchIndex.search("removido", 10).isEmpty());
+        assertTrue(searchIndex.search("DEL", 10).isEmpty());
+    }
+
+    @Test
+    void shouldSearchOverHttp() {
+        service.create(request("HTTP01", "Desconto na web"));
+        catchUp();
+
+        ResponseEntity<CouponResponse[]> response = restTemplate.getForEntity(
+                "/coupon/search?q={q}&limit=5", CouponResponse[].class, "desconto web");
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertNotNull(response.getBody());
+        assertEquals(1, response.getBody().length);
+        assertEquals("HTTP01", response.getBody()[0].code());
+
+        assertEquals(HttpStatus.BAD_REQUEST,
+                restTemplate.getForEntity("/coupon/search?q={q}", String.class, " ").getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST,
+                restTemplate.getForEntity("/coupon/search?q=web&limit=0", String.class).getStatusCode());
+    }
+
+    private void catchUp() {
+        changeFeed.poll();
+        searchIndex.refresh();
+    }
+
+    private static List<String> codes(List<CouponResponse> coupons) {
+        return coupons.stream().map(CouponResponse::code).toList();
+    }
+
+    private static CouponRequest request(String code, String description) {
+        CouponRequest request = new CouponRequest();
+        request.setCode(code);
+        request.setDescription(description);
+        request.setDiscountValue(BigDecimal.valueOf(1.0));
+        request.setExpirationDate(LocalDateTime.now().plusDays(5));
+        request.setPublished(true);
+        return request;
+    }
+}
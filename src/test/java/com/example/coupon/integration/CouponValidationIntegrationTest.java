@@ -0,0 +1,104 @@
+package com.example.coupon.integration;
+
+import com.example.coupon.dto.CodeValidationResult;
+import com.example.coupon.entity.CouponEntity;
+import com.example.coupon.entity.CouponStatus;
+import com.example.coupon.repository.CouponRepository;
+import com.example.coupon.service.CouponValidationService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:coupon-validation",
+        "coupon.sweeper.enabled=false"
+})
+class CouponValidationIntegrationTest {
+
+    @Autowired
+    private CouponValidationService validationService;
+
+    @Autowired
+    private CouponRepository repository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        repository.deleteAll();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void shouldValidateFiftyCodesWithOneQuery() {
+        List<String> codes = IntStream.range(0, 50).mapToObj("CART%02d"::formatted).toList();
+        repository.saveAll(codes.stream().map(code -> coupon(code, true)).toList());
+        statistics.clear();
+
+        List<CodeValidationResult> results = validationService.validate(codes.stream().map(String::toLowerCase).toList());
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(50, results.size());
+        assertTrue(results.stream().allMatch(CodeValidationResult::valid));
+        assertEquals(codes, results.stream().map(CodeValidationResult::code).toList());
+
+        // A second check of the same cart is answered by the code cache.
+        statistics.clear();
+        validationService.validate(codes);
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void shouldGiveAVerdictPerCodeInRequestOrder() {
+        CouponEntity redeemed = coupon("USED01", true);
+        ReflectionTestUtils.setField(redeemed, "redeemed", true);
+        CouponEntity expired = coupon("OLD001", true);
+        ReflectionTestUtils.setField(expired, "expirationDate", LocalDateTime.now().minusDays(1));
+        CouponEntity inactive = coupon("OFF001", true);
+        ReflectionTestUtils.setField(inactive, "status", CouponStatus.INACTIVE);
+        repository.saveAll(List.of(coupon("GOOD01", true), coupon("HIDE01", false), redeemed, expired, inactive));
+
+        List<String> codes = new ArrayList<>(Arrays.asList("go-od-01", "HIDE01", "USED01", "OLD001", "OFF001", "NONE01", "bad", null, "GOOD01"));
+        List<CodeValidationResult> results = validationService.validate(codes);
+
+        assertEquals(List.of(true, false, false, false, false, false, false, false, true),
+                results.stream().map(CodeValidationResult::valid).toList());
+        assertEquals(Arrays.asList(null, "Coupon is not published", "Coupon already redeemed", "Coupon expired",
+                        "Coupon is not active", "Coupon not found", "Coupon code must have exactly 6 alphanumeric characters",
+                        "Coupon code cannot be null", null),
+                results.stream().map(CodeValidationResult::message).toList());
+        assertEquals(0, BigDecimal.valueOf(2.5).compareTo(results.get(0).discountValue()));
+        assertNull(results.get(1).discountValue());
+        assertEquals("bad", results.get(6).code());
+    }
+
+    private static CouponEntity coupon(String code, boolean published) {
+        return CouponEntity.create(
+                code,
+                "Cart coupon",
+                BigDecimal.valueOf(2.5),
+                LocalDateTime.now().plusDays(1),
+                published
+        );
+    }
+}
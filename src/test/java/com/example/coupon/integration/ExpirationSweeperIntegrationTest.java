@@ -0,0 +1,88 @@
+package com.example.coupon.integration;
+
+import com.example.coupon.entity.CouponStatus;
+import com.example.coupon.repository.CouponRepository;
+import com.example.coupon.scheduling.ExpirationSweeper;
+import com.example.coupon.scheduling.JobLeaseService;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:sweeper",
+        "coupon.sweeper.enabled=false",
+        "coupon.sweeper.chunk-size=7"
+})
+class ExpirationSweeperIntegrationTest {
+
+    @Autowired
+    private ExpirationSweeper sweeper;
+
+    @Autowired
+    private JobLeaseService leaseService;
+
+    @Autowired
+    private CouponRepository repository;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @BeforeEach
+    void setUp() {
+        jdbc.update("delete from coupons");
+        jdbc.update("delete from job_leases");
+        // Rows are written through JDBC with reused codes, which the second-level cache cannot see.
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @Test
+    void shouldDeactivateOnlyExpiredActiveCouponsAcrossChunks() {
+        for (int i = 0; i < 20; i++) {
+            insert(String.format("EXP%03d", i), LocalDateTime.now().minusHours(1 + i), "ACTIVE");
+        }
+        insert("LIVE01", LocalDateTime.now().plusDays(1), "ACTIVE");
+        insert("GONE01", LocalDateTime.now().minusDays(1), "DELETED");
+
+        int swept = sweeper.sweep();
+
+        assertEquals(20, swept);
+        assertEquals(CouponStatus.INACTIVE, repository.findByCode("EXP000").orElseThrow().getStatus());
+        assertEquals(CouponStatus.INACTIVE, repository.findByCode("EXP019").orElseThrow().getStatus());
+        assertEquals(CouponStatus.ACTIVE, repository.findByCode("LIVE01").orElseThrow().getStatus());
+        assertEquals(CouponStatus.DELETED, repository.findByCode("GONE01").orElseThrow().getStatus());
+        assertEquals(0, sweeper.sweep());
+    }
+
+    @Test
+    void shouldGrantLeaseToOneOwnerAtATime() {
+        assertTrue(leaseService.tryAcquire("test-job", "instance-a", Duration.ofMinutes(1)));
+        assertFalse(leaseService.tryAcquire("test-job", "instance-b", Duration.ofMinutes(1)));
+        assertTrue(leaseService.tryAcquire("test-job", "instance-a", Duration.ofMinutes(1)));
+
+        leaseService.release("test-job", "instance-a");
+
+        assertTrue(leaseService.tryAcquire("test-job", "instance-b", Duration.ofMinutes(1)));
+    }
+
+    private void insert(String code, LocalDateTime expiration, String status) {
+        jdbc.update("""
+                insert into coupons (id, code, description, discount_value, expiration_date, status, published, redeemed)
+                values (?, ?, 'Sweeper', 1.0, ?, ?, true, false)
+                """, UUID.randomUUID(), code, Timestamp.valueOf(expiration), status);
+    }
+}
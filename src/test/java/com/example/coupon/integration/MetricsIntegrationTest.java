@@ -0,0 +1,52 @@
+package com.example.coupon.integration;
+
+import com.example.coupon.dto.CouponRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureObservability
+class MetricsIntegrationTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Test
+    void shouldExposeServiceHttpErrorAndPoolMetrics() {
+        String baseUrl = "http://localhost:" + port;
+
+        CouponRequest request = new CouponRequest();
+        request.setCode("MET001");
+        request.setDescription("Metrics");
+        request.setDiscountValue(BigDecimal.valueOf(1.0));
+        request.setExpirationDate(LocalDateTime.now().plusDays(5));
+        restTemplate.postForEntity(baseUrl + "/coupon", request, String.class);
+        restTemplate.postForEntity(baseUrl + "/coupon", request, String.class);
+
+        ResponseEntity<String> response = restTemplate.getForEntity(baseUrl + "/actuator/prometheus", String.class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        String body = response.getBody();
+        assertTrue(body.contains("coupon_service_seconds_bucket"));
+        assertTrue(body.contains("method=\"create\""));
+        assertTrue(body.contains("http_server_requests_seconds_bucket"));
+        assertTrue(body.contains("coupon_errors_total"));
+        assertTrue(body.contains("reason=\"Coupon code already exists\""));
+        assertTrue(body.contains("hikaricp_connections_active"));
+    }
+}
@@ -0,0 +1,264 @@
+package com.example.coupon.integration;
+
+import com.example.coupon.entity.CouponStatus;
+import com.example.coupon.repository.CouponRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Calls the repository queries, captures the SQL Hibernate generates for them together with the
+ * bound parameters, and runs EXPLAIN on exactly that. Fails when H2 would scan the whole table
+ * instead of using an index.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:query-plans",
+        "coupon.sweeper.enabled=false"
+})
+@Import(QueryPlanIntegrationTest.RecordingConfig.class)
+class QueryPlanIntegrationTest {
+
+    private static final String[] STATUSES = {"ACTIVE", "INACTIVE", "DELETED"};
+    private static final String STATUS_EXPIRATION_INDEX = "IDX_COUPONS_STATUS_EXPIRATION_ID";
+    private static final String EXPIRATION_INDEX = "IDX_COUPONS_EXPIRATION_DATE";
+    private static final StatementRecorder RECORDER = new StatementRecorder();
+
+    @Autowired
+    private CouponRepository repository;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void seed() {
+        jdbc.update("delete from coupons");
+        LocalDateTime base = LocalDateTime.now().plusDays(1);
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < 1_500; i++) {
+            rows.add(new Object[]{
+                    UUID.randomUUID(),
+                    String.format("P%05d", i),
+                    Timestamp.valueOf(base.plusMinutes(i)),
+                    STATUSES[i % STATUSES.length]
+            });
+        }
+        jdbc.batchUpdate("""
+                insert into coupons (id, code, description, discount_value, expiration_date, status, published, redeemed)
+                values (?, ?, 'Plan', 1.0, ?, ?, true, false)
+                """, rows);
+    }
+
+    @Test
+    void listingAndItsCountUseStatusExpirationIndex() {
+        List<RecordedStatement> statements = record(() -> repository.findResponsesByStatus(
+                CouponStatus.ACTIVE, PageRequest.of(0, 10, Sort.by("expirationDate").ascending())));
+
+        assertTrue(statements.size() == 2, () -> "Expected the page and its count query, got " + statements);
+        statements.forEach(statement -> assertIndexed(statement, STATUS_EXPIRATION_INDEX));
+    }
+
+    @Test
+    void keysetScrollUsesStatusExpirationIndex() {
+        assertAllIndexed(STATUS_EXPIRATION_INDEX,
+                () -> repository.findFirstResponses(CouponStatus.ACTIVE, PageRequest.ofSize(10)));
+        assertAllIndexed(STATUS_EXPIRATION_INDEX, () -> repository.findResponsesAfter(
+                CouponStatus.ACTIVE, LocalDateTime.now().plusDays(2), UUID.randomUUID(), PageRequest.ofSize(10)));
+    }
+
+    @Test
+    void exportFiltersUseIndexes() {
+        LocalDateTime from = LocalDateTime.now().plusDays(1);
+        LocalDateTime to = from.plusHours(2);
+        assertAllIndexed(STATUS_EXPIRATION_INDEX, () -> inReadOnlyTransaction(() ->
+                repository.streamForExport(CouponStatus.ACTIVE, from, to).close()));
+        assertAllIndexed(EXPIRATION_INDEX, () -> inReadOnlyTransaction(() ->
+                repository.streamForExport(from, to).close()));
+    }
+
+    @Test
+    void sweeperQueriesUseStatusExpirationIndex() {
+        LocalDateTime now = LocalDateTime.now().plusDays(1).plusHours(1);
+        assertAllIndexed(STATUS_EXPIRATION_INDEX, () -> repository.findOldestExpiredActive(now));
+        assertAllIndexed(STATUS_EXPIRATION_INDEX, () -> repository.findExpiredActive(now, PageRequest.ofSize(100)));
+        assertAllIndexed(null, () -> inTransaction(() -> repository.deactivateExpired(List.of(UUID.randomUUID()), now)));
+    }
+
+    @Test
+    void codeLookupsUseUniqueIndex() {
+        List<String> codes = List.of("P00001", "P00002", "P00003");
+        assertAllIndexed(null, () -> repository.findResponseByCode("P00001"));
+        assertAllIndexed(null, () -> repository.findExistingCodes(codes));
+        assertAllIndexed(null, () -> repository.findResponsesByCodes(codes));
+        assertAllIndexed(null, () -> repository.findSearchableByCodes(codes));
+        assertAllIndexed(null, () -> inTransaction(() -> repository.redeemByCode("P00001", LocalDateTime.now())));
+    }
+
+    @Test
+    void idLookupsUsePrimaryKey() {
+        List<UUID> ids = List.of(UUID.randomUUID(), UUID.randomUUID());
+        assertAllIndexed(null, () -> repository.findResponseById(ids.get(0)));
+        assertAllIndexed(null, () -> repository.findVersionById(ids.get(0)));
+        assertAllIndexed(null, () -> inTransaction(() -> repository.lockDeletable(ids)));
+        assertAllIndexed(null, () -> inTransaction(() -> repository.softDeleteAll(ids)));
+    }
+
+    private void assertAllIndexed(String expectedIndex, Runnable queries) {
+        List<RecordedStatement> statements = record(queries);
+        assertFalse(statements.isEmpty(), "No statement was recorded");
+        statements.forEach(statement -> assertIndexed(statement, expectedIndex));
+    }
+
+    private void assertIndexed(RecordedStatement statement, String expectedIndex) {
+        String plan = jdbc.query("explain " + statement.sql(), statement::bind, rs -> rs.next() ? rs.getString(1) : "");
+        assertFalse(plan.contains("tableScan"), () -> "Full table scan for:\n" + statement.sql() + "\nPlan:\n" + plan);
+        if (expectedIndex != null) {
+            assertTrue(plan.toUpperCase().contains(expectedIndex), () -> "Expected " + expectedIndex + " in plan:\n" + plan);
+        }
+    }
+
+    private List<RecordedStatement> record(Runnable queries) {
+        return RECORDER.record(queries);
+    }
+
+    private void inTransaction(Runnable action) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> action.run());
+    }
+
+    private void inReadOnlyTransaction(Runnable action) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(true);
+        template.executeWithoutResult(status -> action.run());
+    }
+
+    @TestConfiguration
+    static class RecordingConfig {
+
+        @Bean
+        static BeanPostProcessor recordingDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource ? RECORDER.wrap(dataSource) : bean;
+                }
+            };
+        }
+    }
+
+    /**
+     * Statement prepared while recording, with the parameter setters called on it so EXPLAIN can
+     * replay them.
+     */
+    record RecordedStatement(String sql, Map<Integer, Binding> bindings) {
+
+        void bind(PreparedStatement explain) {
+            bindings.values().forEach(binding -> binding.applyTo(explain));
+        }
+    }
+
+    record Binding(Method setter, Object[] args) {
+
+        void applyTo(PreparedStatement statement) {
+            try {
+                setter.invoke(statement, args);
+            } catch (IllegalAccessException | InvocationTargetException ex) {
+                throw new IllegalStateException("Could not replay " + setter.getName(), ex);
+            }
+        }
+    }
+
+    /**
+     * JDBC proxies that capture what the calling thread prepares while {@link #record} runs, so
+     * statements of background jobs and of EXPLAIN itself are left out.
+     */
+    static final class StatementRecorder {
+
+        private final List<RecordedStatement> recorded = new CopyOnWriteArrayList<>();
+        private volatile Thread recording;
+
+        List<RecordedStatement> record(Runnable queries) {
+            recorded.clear();
+            recording = Thread.currentThread();
+            try {
+                queries.run();
+            } finally {
+                recording = null;
+            }
+            return List.copyOf(recorded);
+        }
+
+        DataSource wrap(DataSource dataSource) {
+            return proxy(DataSource.class, dataSource, (method, args, result) ->
+                    result instanceof Connection connection ? wrap(connection) : result);
+        }
+
+        private Connection wrap(Connection connection) {
+            return proxy(Connection.class, connection, (method, args, result) -> {
+                if (result instanceof PreparedStatement statement && method.getName().equals("prepareStatement")
+                        && recording == Thread.currentThread()) {
+                    RecordedStatement captured = new RecordedStatement((String) args[0], new TreeMap<>());
+                    recorded.add(captured);
+                    return wrap(statement, captured);
+                }
+                return result;
+            });
+        }
+
+        private PreparedStatement wrap(PreparedStatement statement, RecordedStatement captured) {
+            return proxy(PreparedStatement.class, statement, (method, args, result) -> {
+                if (method.getName().startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+                    captured.bindings().put(index, new Binding(method, args));
+                }
+                return result;
+            });
+        }
+
+        private static <T> T proxy(Class<T> type, T target, AfterCall afterCall) {
+            return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+                Object result;
+                try {
+                    result = method.invoke(target, args);
+                } catch (InvocationTargetException ex) {
+                    throw ex.getTargetException();
+                }
+                return afterCall.apply(method, args, result);
+            }));
+        }
+
+        @FunctionalInterface
+        private interface AfterCall {
+
+            Object apply(Method method, Object[] args, Object result);
+        }
+    }
+}
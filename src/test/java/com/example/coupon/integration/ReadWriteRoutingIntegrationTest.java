@@ -0,0 +1,130 @@
+package com.example.coupon.integration;
+
+import com.example.coupon.datasource.ReadYourWrites;
+import com.example.coupon.dto.CouponRequest;
+import com.example.coupon.entity.CouponEntity;
+import com.example.coupon.service.CouponService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Two in-memory H2 databases stand in for primary and replica; "replication" is an H2 script
+ * copied from one to the other, so the test decides exactly how stale the replica is.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing-primary",
+        "coupon.datasource.replica.enabled=true",
+        "coupon.datasource.replica.url=jdbc:h2:mem:routing-replica",
+        "coupon.datasource.replica.read-your-writes-window=1m",
+        "coupon.sweeper.enabled=false"
+})
+class ReadWriteRoutingIntegrationTest {
+
+    @Autowired
+    private CouponService service;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primary;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private DataSource replica;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    private UUID couponId;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        ReadYourWrites.clear();
+        JdbcTemplate primaryJdbc = new JdbcTemplate(primary);
+        primaryJdbc.update("delete from coupons");
+        couponId = service.create(request("ROUTE1")).getId();
+        replicate();
+        // The replica now lags behind this change.
+        primaryJdbc.update("update coupons set description = 'Changed on primary' where id = ?", couponId);
+        ReadYourWrites.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReadYourWrites.clear();
+    }
+
+    @Test
+    void shouldServeReadOnlyTransactionsFromReplica() {
+        double replicaAcquires = acquireCount("replica");
+
+        assertEquals("Routed", service.getById(couponId).description());
+        assertTrue(acquireCount("replica") > replicaAcquires);
+    }
+
+    @Test
+    void shouldReadFromPrimaryAfterWriteInSameRequest() {
+        service.create(request("ROUTE2"));
+        double primaryAcquires = acquireCount("primary");
+
+        assertEquals("Changed on primary", service.getById(couponId).description());
+        assertTrue(acquireCount("primary") > primaryAcquires);
+
+        // What the request filter does once the request completes.
+        ReadYourWrites.clear();
+        assertEquals("Routed", service.getById(couponId).description());
+    }
+
+    @Test
+    void shouldSendWritesToPrimary() {
+        CouponEntity created = service.create(request("ROUTE3"));
+
+        Integer onPrimary = new JdbcTemplate(primary)
+                .queryForObject("select count(*) from coupons where id = ?", Integer.class, created.getId());
+        Integer onReplica = new JdbcTemplate(replica)
+                .queryForObject("select count(*) from coupons where id = ?", Integer.class, created.getId());
+        assertEquals(1, onPrimary);
+        assertEquals(0, onReplica);
+    }
+
+    private void replicate() throws Exception {
+        Path script = Files.createTempFile("routing-", ".sql");
+        try {
+            new JdbcTemplate(primary).execute("script drop to '" + script.toAbsolutePath() + "'");
+            new JdbcTemplate(replica).execute("runscript from '" + script.toAbsolutePath() + "'");
+        } finally {
+            Files.deleteIfExists(script);
+        }
+    }
+
+    private double acquireCount(String pool) {
+        Timer timer = registry.find("hikaricp.connections.acquire").tag("pool", pool).timer();
+        return timer == null ? 0 : timer.count();
+    }
+
+    private static CouponRequest request(String code) {
+        CouponRequest request = new CouponRequest();
+        request.setCode(code);
+        request.setDescription("Routed");
+        request.setDiscountValue(BigDecimal.valueOf(1.0));
+        request.setExpirationDate(LocalDateTime.now().plusDays(5));
+        request.setPublished(true);
+        return request;
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.coupon.integration;
+
+import com.example.coupon.dto.CouponRequest;
+import com.example.coupon.entity.CouponEntity;
+import com.example.coupon.entity.CouponStatus;
+import com.example.coupon.repository.CouponRepository;
+import com.example.coupon.service.CouponService;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:second-level-cache",
+        "coupon.sweeper.enabled=false"
+})
+class SecondLevelCacheIntegrationTest {
+
+    @Autowired
+    private CouponService service;
+
+    @Autowired
+    private CouponRepository repository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        repository.deleteAll();
+        entityManagerFactory.getCache().evictAll();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void shouldServeRepeatedReadsWithoutQueries() {
+        CouponEntity created = service.create(request("HOT001"));
+        statistics.clear();
+
+        for (int i = 0; i < 5; i++) {
+            // Separate transactions, so the persistence context cannot be what answers.
+            assertEquals("HOT001", inTransaction().execute(status -> repository.findById(created.getId()).orElseThrow()).getCode());
+            assertEquals(created.getId(), inTransaction().execute(status -> repository.findByCode("HOT001").orElseThrow()).getId());
+        }
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(10, statistics.getDomainDataRegionStatistics(CouponEntity.CACHE_REGION).getHitCount());
+        assertEquals(5, statistics.getNaturalIdCacheHitCount());
+    }
+
+    @Test
+    void shouldNotServeStaleCouponsAfterStatementLevelUpdates() {
+        CouponEntity redeemable = service.create(request("WARM01"));
+        CouponEntity deletable = service.create(request("WARM02"));
+        repository.findById(redeemable.getId());
+        repository.findById(deletable.getId());
+
+        CouponEntity redeemed = service.redeem("WARM01");
+        service.delete(deletable.getId());
+
+        assertTrue(redeemed.isRedeemed());
+        assertEquals(redeemable.getVersion() + 1, redeemed.getVersion());
+        assertTrue(repository.findById(redeemable.getId()).orElseThrow().isRedeemed());
+        assertTrue(repository.findByCode("WARM01").orElseThrow().isRedeemed());
+        assertEquals(CouponStatus.DELETED, repository.findById(deletable.getId()).orElseThrow().getStatus());
+        assertEquals(CouponStatus.DELETED, repository.findByCode("WARM02").orElseThrow().getStatus());
+    }
+
+    @Test
+    void shouldPublishCacheMetrics() {
+        CouponEntity created = service.create(request("METRIC"));
+        repository.findById(created.getId());
+
+        assertNotNull(meterRegistry.find("hibernate.second.level.cache.requests")
+                .tags("region", CouponEntity.CACHE_REGION, "result", "hit").functionCounter());
+        assertNotNull(meterRegistry.find("hibernate.second.level.cache.puts")
+                .tag("region", CouponEntity.CACHE_REGION).functionCounter());
+        assertNotNull(meterRegistry.find("cache.evictions").tag("cache", CouponEntity.CACHE_REGION).functionCounter());
+        assertNotNull(meterRegistry.find("cache.evictions").tag("cache", CouponEntity.CODE_CACHE_REGION).functionCounter());
+    }
+
+    private TransactionTemplate inTransaction() {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(true);
+        return template;
+    }
+
+    private CouponRequest request(String code) {
+        CouponRequest request = new CouponRequest();
+        request.setCode(code);
+        request.setDescription("Cached coupon");
+        request.setDiscountValue(BigDecimal.valueOf(0.8));
+        request.setExpirationDate(LocalDateTime.now().plusDays(10));
+        request.setPublished(true);
+        return request;
+    }
+}
@@ -0,0 +1,155 @@
+package com.example.coupon.journal;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RedemptionJournalTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void shouldReadBackAppendedEventsInOrder() throws Exception {
+        RedemptionJournal journal = open(DataSize.ofMegabytes(1));
+        try {
+            RedemptionEvent first = event(1, "ORDER-1");
+            RedemptionEvent second = event(2, null);
+            journal.append(first);
+            journal.append(second);
+
+            RedemptionJournal.Batch batch = journal.read(journal.firstPosition(), 10);
+
+            assertEquals(List.of(first, second), batch.entries().stream().map(RedemptionJournal.Entry::event).toList());
+            assertEquals(journal.durablePosition(), batch.next());
+            assertTrue(journal.read(batch.next(), 10).entries().isEmpty());
+        } finally {
+            journal.close();
+        }
+    }
+
+    @Test
+    void shouldContinueAfterReopen() throws Exception {
+        RedemptionJournal journal = open(DataSize.ofMegabytes(1));
+        journal.append(event(1, "A"));
+        String id = journal.id();
+        journal.close();
+
+        RedemptionJournal reopened = open(DataSize.ofMegabytes(1));
+        try {
+            reopened.append(event(2, "B"));
+
+            assertEquals(id, reopened.id());
+            assertEquals(2, reopened.read(reopened.firstPosition(), 10).entries().size());
+        } finally {
+            reopened.close();
+        }
+    }
+
+    @Test
+    void shouldDropTornTailOnRecovery() throws Exception {
+        RedemptionJournal journal = open(DataSize.ofMegabytes(1));
+        journal.append(event(1, "KEPT"));
+        long end = journal.durablePosition();
+        journal.close();
+
+        // A record whose length made it to disk but whose body and checksum did not.
+        try (RandomAccessFile file = new RandomAccessFile(onlySegment().toFile(), "rw")) {
+            file.seek(end);
+            file.writeInt(40);
+            file.writeLong(42);
+        }
+
+        RedemptionJournal recovered = open(DataSize.ofMegabytes(1));
+        try {
+            assertEquals(end, recovered.durablePosition());
+            recovered.append(event(2, "AFTER"));
+
+            List<RedemptionJournal.Entry> entries = recovered.read(recovered.firstPosition(), 10).entries();
+            assertEquals(List.of("KEPT", "AFTER"), entries.stream().map(e -> e.event().orderReference()).toList());
+        } finally {
+            recovered.close();
+        }
+    }
+
+    @Test
+    void shouldRollSegmentsAndDiscardAppliedOnes() throws Exception {
+        RedemptionJournal journal = open(DataSize.ofKilobytes(4));
+        try {
+            int events = 200;
+            for (int i = 0; i < events; i++) {
+                journal.append(event(i, "ORDER-" + i));
+            }
+
+            List<RedemptionJournal.Entry> read = new ArrayList<>();
+            long position = journal.firstPosition();
+            RedemptionJournal.Batch batch;
+            while (!(batch = journal.read(position, 50)).entries().isEmpty()) {
+                read.addAll(batch.entries());
+                position = batch.next();
+            }
+            assertEquals(events, read.size());
+            assertEquals("ORDER-199", read.get(events - 1).event().orderReference());
+
+            journal.discardBefore(position);
+            assertEquals(position & 0xFFFFFFFF00000000L, journal.firstPosition());
+        } finally {
+            journal.close();
+        }
+    }
+
+    @Test
+    void shouldKeepEveryConcurrentAppend() throws Exception {
+        RedemptionJournal journal = open(DataSize.ofKilobytes(64));
+        try {
+            int threads = 16;
+            int perThread = 200;
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int thread = t;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < perThread; i++) {
+                        journal.append(event(thread * perThread + i, null));
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            executor.shutdown();
+
+            assertEquals(threads * perThread, journal.read(journal.firstPosition(), Integer.MAX_VALUE).entries().size());
+        } finally {
+            journal.close();
+        }
+    }
+
+    private RedemptionJournal open(DataSize segmentSize) throws Exception {
+        return new RedemptionJournal(directory.toString(), segmentSize, new SimpleMeterRegistry());
+    }
+
+    private Path onlySegment() throws Exception {
+        try (var files = Files.list(directory)) {
+            return files.filter(path -> path.toString().endsWith(".journal")).findFirst().orElseThrow();
+        }
+    }
+
+    private static RedemptionEvent event(long key, String orderReference) {
+        return new RedemptionEvent(new UUID(0, key), key, 1_700_000_000_000L + key, orderReference);
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.coupon.load;
+
+import com.example.coupon.CouponApiApplication;
+import com.example.coupon.entity.CouponEntity;
+import com.example.coupon.repository.CouponRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares platform-thread and virtual-thread request handling with 2,000 concurrent clients.
+ * Not part of the regular build; run with {@code ./mvnw test -Dtest=ExecutionModeLoadTest -Dload=true}.
+ */
+@EnabledIfSystemProperty(named = "load", matches = "true")
+class ExecutionModeLoadTest {
+
+    private static final int CLIENTS = 2_000;
+    private static final int REQUESTS_PER_CLIENT = 25;
+
+    @Test
+    void comparePlatformAndVirtualThreads() throws Exception {
+        Result platform = run(false);
+        Result virtual = run(true);
+
+        System.out.println("platform threads: " + platform);
+        System.out.println("virtual threads:  " + virtual);
+
+        assertTrue(platform.succeeded() > 0);
+        assertTrue(virtual.succeeded() > 0);
+    }
+
+    private Result run(boolean virtualThreads) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(CouponApiApplication.class)
+                .properties(
+                        "server.port=0",
+                        "spring.datasource.url=jdbc:h2:mem:load-" + UUID.randomUUID(),
+                        "spring.jpa.show-sql=false",
+                        "spring.threads.virtual.enabled=" + virtualThreads,
+                        "coupon.concurrency.limit.enabled=" + virtualThreads
+                )
+                .run()) {
+            UUID id = context.getBean(CouponRepository.class).save(CouponEntity.create(
+                    "LOAD01", "Load test", BigDecimal.TEN, LocalDateTime.now().plusDays(1), true
+            )).getId();
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            return hammer(URI.create("http://localhost:" + port + "/coupon/" + id));
+        }
+    }
+
+    private Result hammer(URI uri) throws InterruptedException {
+        HttpClient client = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        HttpRequest request = HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(30)).GET().build();
+
+        long[] latencies = new long[CLIENTS * REQUESTS_PER_CLIENT];
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(CLIENTS);
+
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < CLIENTS; c++) {
+                clients.execute(() -> {
+                    try {
+                        start.await();
+                        for (int r = 0; r < REQUESTS_PER_CLIENT; r++) {
+                            long begin = System.nanoTime();
+                            try {
+                                HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                                if (response.statusCode() != 200) {
+                                    failed.incrementAndGet();
+                                }
+                            } catch (Exception ex) {
+                                failed.incrementAndGet();
+                            }
+                            latencies[next.getAndIncrement()] = System.nanoTime() - begin;
+                        }
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                    } finally {
+                        done.countDown();
+                    }
+                });
+            }
+            long begin = System.nanoTime();
+            start.countDown();
+            done.await();
+            long elapsed = System.nanoTime() - begin;
+
+            int total = next.get();
+            long[] sorted = Arrays.copyOf(latencies, total);
+            Arrays.sort(sorted);
+            return new Result(
+                    total,
+                    total - failed.get(),
+                    total / (elapsed / 1_000_000_000.0),
+                    sorted[(int) (total * 0.50)] / 1_000_000.0,
+                    sorted[(int) (total * 0.99)] / 1_000_000.0,
+                    sorted[total - 1] / 1_000_000.0
+            );
+        }
+    }
+
+    private record Result(int requests, int succeeded, double requestsPerSecond, double p50Millis, double p99Millis, double maxMillis) {
+
+        @Override
+        public String toString() {
+            return String.format("%d requests, %d ok, %.0f req/s, p50 %.1f ms, p99 %.1f ms, max %.1f ms",
+                    requests, succeeded, requestsPerSecond, p50Millis, p99Millis, maxMillis);
+        }
+    }
+}
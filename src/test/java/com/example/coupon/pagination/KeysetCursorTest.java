@@ -0,0 +1,46 @@
+package com.example.coupon.pagination;
+
+import com.example.coupon.exception.BusinessException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KeysetCursorTest {
+
+    @Test
+    void shouldRoundTripThroughEncodedForm() {
+        KeysetCursor cursor = new KeysetCursor(
+                LocalDateTime.of(2030, 1, 31, 23, 59, 59, 123_456_000),
+                UUID.fromString("0190a3c4-5b6d-7e8f-9a0b-1c2d3e4f5a6b")
+        );
+
+        String token = cursor.encode();
+
+        assertEquals(cursor, KeysetCursor.decode(token));
+        assertFalse(token.contains("="));
+        assertFalse(token.contains("+") || token.contains("/"));
+    }
+
+    @Test
+    void shouldRejectMalformedTokens() {
+        for (String token : new String[]{
+                "not a cursor",
+                "",
+                encoded("2030-01-31T00:00"),
+                encoded("2030-01-31T00:00|not-a-uuid"),
+                encoded("yesterday|" + UUID.randomUUID())
+        }) {
+            BusinessException ex = assertThrows(BusinessException.class, () -> KeysetCursor.decode(token));
+            assertEquals("Invalid cursor", ex.getMessage());
+        }
+    }
+
+    private static String encoded(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
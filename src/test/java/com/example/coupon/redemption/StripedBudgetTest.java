@@ -0,0 +1,72 @@
+package com.example.coupon.redemption;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StripedBudgetTest {
+
+    @Test
+    void shouldHandOutEachUnitOnce() {
+        StripedBudget budget = new StripedBudget(8);
+        budget.add(3);
+
+        assertTrue(budget.tryAcquire());
+        assertTrue(budget.tryAcquire());
+        assertTrue(budget.tryAcquire());
+        assertFalse(budget.tryAcquire());
+        assertEquals(3, budget.drainUsed());
+        assertEquals(0, budget.drainUsed());
+    }
+
+    @Test
+    void shouldDrainUnitsLeftOnAnyStripe() {
+        StripedBudget budget = new StripedBudget(4);
+        budget.add(10);
+        budget.tryAcquire();
+
+        assertEquals(9, budget.available());
+        assertEquals(9, budget.drainAvailable());
+        assertFalse(budget.tryAcquire());
+    }
+
+    @Test
+    void shouldNeverOversellAcrossThreads() throws Exception {
+        int threads = 16;
+        long units = 100_000;
+        StripedBudget budget = new StripedBudget(threads);
+        AtomicLong granted = new AtomicLong();
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            // Every thread adds to its own stripe and then drains the others too.
+            futures.add(executor.submit(() -> {
+                budget.add(units / threads);
+                long mine = 0;
+                for (int i = 0; i < units; i++) {
+                    if (budget.tryAcquire()) {
+                        mine++;
+                    }
+                }
+                granted.addAndGet(mine);
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        assertEquals(units, granted.get());
+        assertEquals(units, budget.drainUsed());
+        assertEquals(0, budget.available());
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.coupon.search;
+
+import com.example.coupon.value.CouponCode;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CouponTextIndexTest {
+
+    @Test
+    void shouldFindCodesByPrefixInCodeOrder() {
+        CouponTextIndex index = CouponTextIndex.builder()
+                .add(key("AB0000"), null)
+                .add(key("AB12CD"), null)
+                .add(key("AB9ZZZ"), null)
+                .add(key("ABZZZZ"), null)
+                .add(key("AC0000"), null)
+                .build();
+
+        assertEquals(codes("AB0000", "AB12CD", "AB9ZZZ", "ABZZZZ"), index.byCodePrefix("ab", 10));
+        assertEquals(codes("AB12CD"), index.byCodePrefix("ab-12", 10));
+        assertEquals(codes("AB0000", "AB12CD"), index.byCodePrefix("AB", 2));
+        assertEquals(codes("AC0000"), index.byCodePrefix("AC0000", 10));
+        assertEquals(List.of(), index.byCodePrefix("AC00000", 10));
+        assertEquals(List.of(), index.byCodePrefix("--", 10));
+    }
+
+    @Test
+    void shouldCoverTheEdgesOfTheCodeSpace() {
+        CouponTextIndex index = CouponTextIndex.builder()
+                .add(key("000000"), null)
+                .add(key("ZZZZZZ"), null)
+                .build();
+
+        assertEquals(codes("000000"), index.byCodePrefix("0", 10));
+        assertEquals(codes("ZZZZZZ"), index.byCodePrefix("Z", 10));
+    }
+
+    @Test
+    void shouldMatchDescriptionsContainingEveryWord() {
+        CouponTextIndex index = CouponTextIndex.builder()
+                .add(key("AAAAAA"), "Black Friday - eletrônicos")
+                .add(key("BBBBBB"), "Black Friday moda")
+                .add(key("CCCCCC"), "Natal eletronicos")
+                .build();
+
+        assertEquals(codes("AAAAAA", "BBBBBB"), index.byTokens("black friday", 10));
+        assertEquals(codes("AAAAAA", "CCCCCC"), index.byTokens("ELETRÔNICOS", 10));
+        assertEquals(codes("AAAAAA"), index.byTokens("friday eletronicos", 10));
+        assertEquals(List.of(), index.byTokens("friday natal", 10));
+        assertEquals(List.of(), index.byTokens("páscoa", 10));
+        assertEquals(codes("AAAAAA"), index.byTokens("black", 1));
+    }
+
+    @Test
+    void shouldTokenizeWithoutCaseAccentsOrShortWords() {
+        assertEquals(List.of("cafe", "da", "manha", "50"), CouponTextIndex.tokenize("Café da MANHÃ: 50% e"));
+        assertEquals(List.of("frete", "gratis"), CouponTextIndex.tokenize("frete grátis frete"));
+        assertEquals(List.of(), CouponTextIndex.tokenize(null));
+    }
+
+    @Test
+    void shouldMergeAddsAndRemovesBeforeAndAfterCompaction() {
+        CouponTextIndex index = CouponTextIndex.builder()
+                .add(key("AB0001"), "Black Friday")
+                .add(key("AB0003"), "Black Friday")
+                .build();
+
+        index.add(key("AB0002"), "Black Friday");
+        index.add(key("AB0002"), "Black Friday");
+        index.remove(key("AB0003"));
+        index.remove(key("ZZ0000"));
+
+        assertEquals(2, index.pendingChanges());
+        assertEquals(2, index.size());
+        assertEquals(codes("AB0001", "AB0002"), index.byCodePrefix("AB", 10));
+        assertEquals(codes("AB0001", "AB0002"), index.byTokens("friday", 10));
+        assertFalse(index.contains(key("AB0003")));
+
+        index.compact();
+
+        assertEquals(0, index.pendingChanges());
+        assertEquals(2, index.size());
+        assertEquals(codes("AB0001", "AB0002"), index.byCodePrefix("AB", 10));
+        assertEquals(codes("AB0001", "AB0002"), index.byTokens("black friday", 10));
+    }
+
+    @Test
+    void shouldIndexNewWordsOnlyFromAdds() {
+        CouponTextIndex index = CouponTextIndex.builder()
+                .add(key("AB0001"), "Black Friday")
+                .build();
+
+        index.add(key("AB0002"), "Cyber Monday");
+
+        assertEquals(codes("AB0002"), index.byTokens("cyber", 10));
+        index.compact();
+        assertEquals(codes("AB0002"), index.byTokens("monday", 10));
+    }
+
+    @Test
+    void shouldRejectCodesOutOfOrder() {
+        CouponTextIndex.Builder builder = CouponTextIndex.builder().add(key("BBBBBB"), null);
+
+        assertThrows(IllegalArgumentException.class, () -> builder.add(key("AAAAAA"), null));
+        assertThrows(IllegalArgumentException.class, () -> builder.add(key("BBBBBB"), null));
+    }
+
+    private static long key(String code) {
+        return CouponCode.toKey(code);
+    }
+
+    private static List<Long> codes(String... codes) {
+        return Arrays.stream(codes).map(CouponCode::toKey).toList();
+    }
+}
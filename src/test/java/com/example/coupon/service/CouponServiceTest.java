@@ -1,21 +1,37 @@
 package com.example.coupon.service;
 
+import com.example.coupon.cache.CouponCodeCache;
+import com.example.coupon.cache.CouponCodeFilter;
 import com.example.coupon.dto.CouponRequest;
+import com.example.coupon.dto.CouponResponse;
+import com.example.coupon.entity.CouponChangeType;
 import com.example.coupon.entity.CouponEntity;
 import com.example.coupon.entity.CouponStatus;
 import com.example.coupon.exception.BusinessException;
+import com.example.coupon.journal.RedemptionEvent;
+import com.example.coupon.journal.RedemptionJournal;
+import com.example.coupon.mapper.CouponMapper;
+import com.example.coupon.redemption.RedemptionLedger;
 import com.example.coupon.repository.CouponRepository;
+import com.example.coupon.value.CouponCode;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
@@ -30,6 +46,29 @@ class CouponServiceTest {
     @Mock
     private CouponRepository repository;
 
+    private final CouponMapper mapper = new CouponMapper();
+
+    @Spy
+    private CouponCodeCache codeCache = new CouponCodeCache(100, Duration.ofMinutes(1));
+
+    @Spy
+    private CouponCodeFilter codeFilter = new CouponCodeFilter(1000, 0.01);
+
+    @Mock
+    private CouponChangeTracker changeTracker;
+
+    @Mock
+    private CouponChangeLog changeLog;
+
+    @Mock
+    private RedemptionLedger redemptionLedger;
+
+    @Mock
+    private RedemptionJournal journal;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
     @InjectMocks
     private CouponService service;
 
@@ -37,7 +76,7 @@ class CouponServiceTest {
     void shouldCreateCouponSuccessfully() {
         CouponRequest request = validRequest("AB1C2X");
 
-        when(repository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(repository.saveAndFlush(any())).thenAnswer(invocation -> invocation.getArgument(0));
 
         CouponEntity coupon = service.create(request);
 
@@ -47,6 +86,20 @@ class CouponServiceTest {
         assertFalse(coupon.isRedeemed());
     }
 
+    @Test
+    void shouldCreateWithSingleInsertAndNoLookup() {
+        CouponRequest request = validRequest("FRESH1");
+
+        when(repository.saveAndFlush(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        CouponEntity coupon = service.create(request);
+
+        assertNotNull(coupon.getId());
+        verify(repository, never()).findByCode(any());
+        verify(repository).saveAndFlush(coupon);
+        assertTrue(codeFilter.mightContain(CouponCode.toKey("FRESH1")));
+    }
+
     @Test
     void shouldFailWhenCouponCodeHasInvalidSize() {
         CouponRequest request = validRequest("ABC");
@@ -77,7 +130,7 @@ class CouponServiceTest {
         CouponRequest request = validRequest("ABC123");
         request.setDiscountValue(BigDecimal.valueOf(0.5));
 
-        when(repository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(repository.saveAndFlush(any())).thenAnswer(invocation -> invocation.getArgument(0));
 
         CouponEntity coupon = service.create(request);
 
@@ -101,15 +154,32 @@ class CouponServiceTest {
     void shouldFailWhenDuplicateCouponCode() {
         CouponRequest request = validRequest("DUPLIC");
 
-        CouponEntity existing = CouponEntity.create(
-                "DUPLIC",
-                "Existing coupon",
-                BigDecimal.valueOf(0.8),
-                LocalDateTime.now().plusDays(5),
-                false
+        when(repository.saveAndFlush(any())).thenThrow(new DataIntegrityViolationException(
+                "could not execute statement",
+                new ConstraintViolationException("Unique index or primary key violation", new SQLException(),
+                        "PUBLIC.UK_COUPONS_CODE_INDEX_2")
+        ));
+
+        BusinessException ex = assertThrows(
+                BusinessException.class,
+                () -> service.create(request)
         );
 
-        when(repository.findByCode("DUPLIC")).thenReturn(Optional.of(existing));
+        assertEquals("Coupon code already exists", ex.getMessage());
+        verify(repository, never()).findByCode(any());
+    }
+
+    @Test
+    void shouldRecognizeDuplicateCodeUnderLegacyConstraintName() {
+        CouponRequest request = validRequest("LEGACY");
+
+        when(repository.saveAndFlush(any())).thenThrow(new DataIntegrityViolationException(
+                "could not execute statement",
+                new ConstraintViolationException(
+                        "Unique index or primary key violation: \"PUBLIC.UKEOV8K2T9CKQ5XA8BPMR0AN0MV_INDEX_2 ON PUBLIC.COUPONS(CODE NULLS FIRST) VALUES ( /* 1 */ 'LEGACY' )\"",
+                        new SQLException(),
+                        "PUBLIC.UKEOV8K2T9CKQ5XA8BPMR0AN0MV_INDEX_2")
+        ));
 
         BusinessException ex = assertThrows(
                 BusinessException.class,
@@ -120,39 +190,39 @@ class CouponServiceTest {
     }
 
     @Test
-    void shouldSoftDeleteCoupon() {
-        UUID id = UUID.randomUUID();
-        CouponEntity coupon = CouponEntity.create(
-                "DELETE",
-                "To delete",
-                BigDecimal.valueOf(0.8),
-                LocalDateTime.now().plusDays(5),
-                false
+    void shouldPropagateOtherIntegrityViolationsOnCreate() {
+        CouponRequest request = validRequest("OTHER1");
+        DataIntegrityViolationException violation = new DataIntegrityViolationException(
+                "could not execute statement",
+                new ConstraintViolationException("NULL not allowed", new SQLException(), "DESCRIPTION")
         );
 
-        coupon.getClass().getDeclaredFields();
+        when(repository.saveAndFlush(any())).thenThrow(violation);
+
+        assertSame(violation, assertThrows(DataIntegrityViolationException.class, () -> service.create(request)));
+    }
+
+    @Test
+    void shouldSoftDeleteCouponWithSingleUpdate() {
+        UUID id = UUID.randomUUID();
 
-        when(repository.findById(id)).thenReturn(Optional.of(coupon));
+        when(repository.softDelete(id)).thenReturn(1);
 
         service.delete(id);
 
-        assertEquals(CouponStatus.DELETED, coupon.getStatus());
-        verify(repository).save(coupon);
+        verify(repository, never()).findById(any());
+        verify(repository, never()).existsById(any());
+        verify(repository, never()).save(any());
+        verify(changeTracker).markChanged();
+        verify(changeLog).record(CouponChangeType.DELETED, id);
     }
 
     @Test
     void shouldFailWhenDeletingAlreadyDeletedCoupon() {
         UUID id = UUID.randomUUID();
-        CouponEntity coupon = CouponEntity.create(
-                "DELDED",
-                "Already deleted",
-                BigDecimal.valueOf(0.8),
-                LocalDateTime.now().plusDays(5),
-                false
-        );
-        coupon.markAsDeleted();
 
-        when(repository.findById(id)).thenReturn(Optional.of(coupon));
+        when(repository.softDelete(id)).thenReturn(0);
+        when(repository.existsById(id)).thenReturn(true);
 
         BusinessException ex = assertThrows(
                 BusinessException.class,
@@ -160,12 +230,15 @@ class CouponServiceTest {
         );
 
         assertEquals("Coupon already deleted", ex.getMessage());
+        verifyNoInteractions(changeLog);
     }
 
     @Test
     void shouldFailWhenDeletingNonExistentCoupon() {
         UUID id = UUID.randomUUID();
-        when(repository.findById(id)).thenReturn(Optional.empty());
+
+        when(repository.softDelete(id)).thenReturn(0);
+        when(repository.existsById(id)).thenReturn(false);
 
         BusinessException ex = assertThrows(
                 BusinessException.class,
@@ -175,6 +248,167 @@ class CouponServiceTest {
         assertEquals("Coupon not found", ex.getMessage());
     }
 
+    @Test
+    void shouldRedeemCoupon() {
+        CouponEntity coupon = CouponEntity.create(
+                "REDEEM",
+                "To redeem",
+                BigDecimal.valueOf(0.8),
+                LocalDateTime.now().plusDays(5),
+                true
+        );
+        ReflectionTestUtils.setField(coupon, "redeemed", true);
+
+        when(repository.redeemByCode(eq("REDEEM"), any())).thenReturn(1);
+        when(repository.findCurrentByCode("REDEEM")).thenReturn(Optional.of(coupon));
+
+        CouponEntity result = service.redeem("RE-DE-EM", "ORDER-42");
+
+        assertTrue(result.isRedeemed());
+        verify(repository, never()).save(any());
+        verify(journal).append(argThat(event -> event.couponId().equals(coupon.getId())
+                && event.codeKey() == CouponCode.toKey("REDEEM")
+                && "ORDER-42".equals(event.orderReference())));
+    }
+
+    @Test
+    void shouldFailWhenRedeemingAlreadyRedeemedCoupon() {
+        CouponEntity coupon = CouponEntity.create(
+                "REDEEM",
+                "Already redeemed",
+                BigDecimal.valueOf(0.8),
+                LocalDateTime.now().plusDays(5),
+                true
+        );
+        ReflectionTestUtils.setField(coupon, "redeemed", true);
+
+        when(repository.redeemByCode(eq("REDEEM"), any())).thenReturn(0);
+        when(repository.findCurrentByCode("REDEEM")).thenReturn(Optional.of(coupon));
+
+        BusinessException ex = assertThrows(
+                BusinessException.class,
+                () -> service.redeem("REDEEM")
+        );
+
+        assertEquals("Coupon already redeemed", ex.getMessage());
+        verify(changeTracker, never()).markChanged();
+        verify(journal, never()).append(any());
+    }
+
+    @Test
+    void shouldRejectOverlongOrderReference() {
+        String orderReference = "X".repeat(RedemptionEvent.MAX_ORDER_REFERENCE_BYTES + 1);
+
+        BusinessException ex = assertThrows(
+                BusinessException.class,
+                () -> service.redeem("REDEEM", orderReference)
+        );
+
+        assertEquals("Order reference is too long", ex.getMessage());
+        verify(repository, never()).redeemByCode(any(), any());
+    }
+
+    @Test
+    void shouldFailWhenRedeemingNonExistentCoupon() {
+        when(repository.redeemByCode(eq("NOPE01"), any())).thenReturn(0);
+        when(repository.findCurrentByCode("NOPE01")).thenReturn(Optional.empty());
+
+        BusinessException ex = assertThrows(
+                BusinessException.class,
+                () -> service.redeem("NOPE01")
+        );
+
+        assertEquals("Coupon not found", ex.getMessage());
+    }
+
+    @Test
+    void shouldRedeemMultiUseCouponFromLedgerWithoutRowUpdate() {
+        CouponEntity coupon = CouponEntity.create(
+                new CouponCode("SHARED"),
+                "Campaign",
+                BigDecimal.valueOf(0.8),
+                LocalDateTime.now().plusDays(5),
+                true,
+                100_000
+        );
+
+        when(redemptionLedger.isShared("SHARED")).thenReturn(true);
+        when(repository.findByCode("SHARED")).thenReturn(Optional.of(coupon));
+        when(redemptionLedger.tryRedeem("SHARED")).thenReturn(true);
+
+        assertSame(coupon, service.redeem("SHARED"));
+        verify(repository, never()).redeemByCode(any(), any());
+    }
+
+    @Test
+    void shouldFailWhenMultiUseCouponBudgetIsUsedUp() {
+        CouponEntity coupon = CouponEntity.create(
+                new CouponCode("SHARED"),
+                "Campaign",
+                BigDecimal.valueOf(0.8),
+                LocalDateTime.now().plusDays(5),
+                true,
+                10
+        );
+
+        when(repository.redeemByCode(eq("SHARED"), any())).thenReturn(0);
+        when(repository.findCurrentByCode("SHARED")).thenReturn(Optional.of(coupon));
+        when(redemptionLedger.tryRedeem("SHARED")).thenReturn(false);
+
+        BusinessException ex = assertThrows(
+                BusinessException.class,
+                () -> service.redeem("SHARED")
+        );
+
+        assertEquals("Coupon redemption limit reached", ex.getMessage());
+    }
+
+    @Test
+    void shouldServeRepeatedCodeLookupsFromCache() {
+        CouponEntity coupon = CouponEntity.create(
+                "CACHED",
+                "Cached coupon",
+                BigDecimal.valueOf(0.8),
+                LocalDateTime.now().plusDays(5),
+                true
+        );
+
+        when(repository.findResponseByCode("CACHED")).thenReturn(Optional.of(mapper.toResponse(coupon)));
+
+        CouponResponse first = service.getByCode("ca-ch-ed");
+        CouponResponse second = service.getByCode("CACHED");
+
+        assertEquals("CACHED", first.code());
+        assertSame(first, second);
+        verify(repository, times(1)).findResponseByCode("CACHED");
+        assertEquals(1, codeCache.stats().hitCount());
+        assertEquals(1, codeCache.stats().missCount());
+    }
+
+    @Test
+    void shouldInvalidateCachedCodeOnDelete() {
+        CouponEntity coupon = CouponEntity.create(
+                "EVICT1",
+                "Evicted on delete",
+                BigDecimal.valueOf(0.8),
+                LocalDateTime.now().plusDays(5),
+                true
+        );
+
+        when(repository.findResponseByCode("EVICT1")).thenAnswer(invocation -> Optional.of(mapper.toResponse(coupon)));
+        when(repository.softDelete(coupon.getId())).thenAnswer(invocation -> {
+            coupon.markAsDeleted();
+            return 1;
+        });
+
+        service.getByCode("EVICT1");
+        service.delete(coupon.getId());
+        CouponResponse afterDelete = service.getByCode("EVICT1");
+
+        assertEquals(CouponStatus.DELETED, afterDelete.status());
+        verify(repository, times(2)).findResponseByCode("EVICT1");
+    }
+
     @Test
     void shouldGetCouponByIdSuccessfully() {
         UUID id = UUID.randomUUID();
@@ -186,19 +420,20 @@ class CouponServiceTest {
                 false
         );
 
-        when(repository.findById(id)).thenReturn(Optional.of(coupon));
+        when(repository.findResponseById(id)).thenReturn(Optional.of(mapper.toResponse(coupon)));
 
-        CouponEntity result = service.getById(id);
+        CouponResponse result = service.getById(id);
 
         assertNotNull(result);
-        assertEquals(coupon.getCode(), result.getCode());
+        assertEquals(coupon.getCode(), result.code());
+        verify(repository, never()).findById(any());
     }
 
     @Test
     void shouldFailWhenCouponNotFound() {
         UUID id = UUID.randomUUID();
 
-        when(repository.findById(id)).thenReturn(Optional.empty());
+        when(repository.findResponseById(id)).thenReturn(Optional.empty());
 
         BusinessException ex = assertThrows(
                 BusinessException.class,
@@ -219,13 +454,13 @@ class CouponServiceTest {
                 false
         );
 
-        Page<CouponEntity> page = new PageImpl<>(List.of(activeCoupon));
-        when(repository.findAllByStatus(CouponStatus.ACTIVE, pageable)).thenReturn(page);
+        Page<CouponResponse> page = new PageImpl<>(List.of(mapper.toResponse(activeCoupon)));
+        when(repository.findResponsesByStatus(CouponStatus.ACTIVE, pageable)).thenReturn(page);
 
-        Page<CouponEntity> result = service.listAll(pageable);
+        Page<CouponResponse> result = service.listAll(pageable);
 
         assertEquals(1, result.getContent().size());
-        assertEquals(CouponStatus.ACTIVE, result.getContent().get(0).getStatus());
+        assertEquals(CouponStatus.ACTIVE, result.getContent().get(0).status());
     }
 
     private CouponRequest validRequest(String code) {
@@ -0,0 +1,42 @@
+package com.example.coupon.value;
+
+import com.example.coupon.exception.BusinessException;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CouponCodeTest {
+
+    @Test
+    void shouldMatchLegacyRegexSanitization() {
+        for (String raw : new String[]{"ABC123", "ab-1c.2d", " x#Y$z 9-8_7 ", "000001", "zzzzzz", "çAB12CD"}) {
+            String legacy = raw.replaceAll("[^a-zA-Z0-9]", "").toUpperCase();
+            assertEquals(legacy, new CouponCode(raw).getCode());
+        }
+    }
+
+    @Test
+    void shouldRoundTripKeys() {
+        assertEquals(0L, CouponCode.toKey("000000"));
+        assertEquals("000000", CouponCode.fromKey(0L));
+        assertEquals("ZZZZZZ", CouponCode.fromKey(CouponCode.toKey("zz-zz-zz")));
+        assertEquals(CouponCode.toKey("AB12CD"), CouponCode.toKey("ab 12 cd"));
+    }
+
+    @Test
+    void shouldRejectCodesWithoutExactlySixAlphanumerics() {
+        assertEquals(CouponCode.INVALID_KEY, CouponCode.toKey("ABC12"));
+        assertEquals(CouponCode.INVALID_KEY, CouponCode.toKey("ABC1234"));
+        assertEquals(CouponCode.INVALID_KEY, CouponCode.toKey("#$%"));
+
+        BusinessException ex = assertThrows(BusinessException.class, () -> new CouponCode("A#B"));
+        assertEquals("Coupon code must have exactly 6 alphanumeric characters", ex.getMessage());
+    }
+
+    @Test
+    void shouldCompareByKey() {
+        assertEquals(new CouponCode("ab-c12-3"), new CouponCode("ABC123"));
+        assertEquals(new CouponCode("ab-c12-3").hashCode(), new CouponCode("ABC123").hashCode());
+        assertNotEquals(new CouponCode("ABC123"), new CouponCode("ABC124"));
+    }
+}